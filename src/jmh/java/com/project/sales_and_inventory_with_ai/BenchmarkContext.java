@@ -0,0 +1,30 @@
+package com.project.sales_and_inventory_with_ai;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+// Starts the application without a web server on its own in-memory H2 database (the test profile)
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(InventoryAndSalesRestApiWithAiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        // Statistics are for the statement-count tests; they only add overhead here
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.project.sales_and_inventory_with_ai=WARN",
+                        // Keeps the Ollama health probe out of the measurements
+                        "ollama.health-check-interval=3600000")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time to classify one chat message with the keyword router, over the labeled test corpus
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiIntentRouterBenchmark {
+
+    private final AiIntentRouter intentRouter = new AiIntentRouter(0.8);
+    private List<String> messages;
+    private int next;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        messages = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/ai/intent-corpus.tsv"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    messages.add(line.split("\t")[0]);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void classify(Blackhole blackhole) {
+        next = (next + 1) % messages.size();
+        blackhole.consume(intentRouter.classify(messages.get(next)));
+    }
+}
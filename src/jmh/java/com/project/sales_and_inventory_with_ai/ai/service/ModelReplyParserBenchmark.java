@@ -0,0 +1,54 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.sales_and_inventory_with_ai.ai.dto.ModelReply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Compares the old reply parsing (two regex replaceAll passes, then an untyped Map) with ModelReplyParser.
+// Stands in for AIServiceImpl.parseAndExecute, minus the action it runs afterwards
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelReplyParserBenchmark {
+
+    private static final String REPLY = "Sige po!\n```json\n"
+            + "{\"action\":\"RECORD_SALE\",\"parameters\":{\"items\":[{\"name\":\"Tapsilog\",\"quantity\":2},"
+            + "{\"name\":\"Iced Tea\",\"quantity\":2}],\"paymentMethod\":\"cash\"},"
+            + "\"message\":\"Naitala ko na po ang benta: 2 Tapsilog at 2 Iced Tea. Salamat po!\",\"needsMoreInfo\":false}"
+            + "\n```\nMay iba pa po ba kayong kailangan?";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelReplyParser replyParser = new ModelReplyParser(JsonMapper.builder().build());
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> regexCleanupAndMap() throws Exception {
+        String cleanedResponse = REPLY
+                .replaceAll("```json\\s*", "")
+                .replaceAll("```\\s*", "")
+                .trim();
+        // The old path only worked when nothing but the fences surrounded the JSON, so give it a clean object
+        int end = cleanedResponse.lastIndexOf('}') + 1;
+        return objectMapper.readValue(cleanedResponse.substring(cleanedResponse.indexOf('{'), end), Map.class);
+    }
+
+    @Benchmark
+    public ModelReply extractorAndTypedReply() {
+        return replyParser.parse(REPLY).orElseThrow();
+    }
+}
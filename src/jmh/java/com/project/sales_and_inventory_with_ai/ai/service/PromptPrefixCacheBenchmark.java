@@ -0,0 +1,132 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.project.sales_and_inventory_with_ai.ai.dto.OllamaResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays chat messages against a stub Ollama that charges prompt evaluation only for tokens outside the
+// context it still holds from the previous request, like the real runner does. keepAlive "0" unloads the
+// model after every request, so the system prompt is evaluated each time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptPrefixCacheBenchmark {
+
+    private static final long NANOS_PER_TOKEN = 40_000;
+    private static final List<String> MESSAGES = List.of(
+            "bumili ako ng 10 eggs",
+            "magkano kinita ko today?",
+            "pa-show ng lahat ng materials",
+            "ano ang low stock items?",
+            "ano ang best selling items ngayong week?",
+            "nagbenta ako ng 3 chocolate cake",
+            "may bagong stock ng flour, 5 kg",
+            "pa-check ng stock");
+
+    @Param({"0", "30m"})
+    private String keepAlive;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private HttpServer server;
+    private OllamaService ollamaService;
+    private String cachedContext = "";
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            JsonNode request = jsonMapper.readTree(exchange.getRequestBody().readAllBytes());
+            byte[] body = jsonMapper.writeValueAsBytes(evaluate(request));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        OllamaProperties properties = new OllamaProperties();
+        properties.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        properties.setTimeout(10);
+        properties.setKeepAlive(keepAlive);
+        OllamaCircuitBreaker circuitBreaker = new OllamaCircuitBreaker(3, Duration.ofSeconds(30), Clock.systemUTC());
+        ollamaService = new OllamaService(new OllamaEndpointPool(properties, WebClient.create()), properties, circuitBreaker,
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    // Total prompt evaluation time Ollama reports for the conversation
+    @Benchmark
+    public long replayConversation() {
+        cachedContext = "";
+        long promptEvalNanos = 0;
+        for (String message : MESSAGES) {
+            OllamaResponse response = ollamaService
+                    .generate(OllamaRole.CLASSIFY, AIServiceImpl.SYSTEM_PROMPT, AIServiceImpl.userPrompt(message))
+                    .block(Duration.ofSeconds(10));
+            promptEvalNanos += response.getPromptEvalDuration();
+        }
+        return promptEvalNanos;
+    }
+
+    private Map<String, Object> evaluate(JsonNode request) {
+        String system = request.hasNonNull("system") ? request.get("system").asString() : "";
+        String context = system + "\n\n" + request.get("prompt").asString();
+
+        // Only the part after the longest shared prefix needs a forward pass
+        int shared = 0;
+        while (shared < Math.min(context.length(), cachedContext.length())
+                && context.charAt(shared) == cachedContext.charAt(shared)) {
+            shared++;
+        }
+        int evaluatedTokens = tokens(context.length()) - tokens(shared);
+        long start = System.nanoTime();
+        LockSupport.parkNanos(evaluatedTokens * NANOS_PER_TOKEN);
+        long promptEvalDuration = System.nanoTime() - start;
+
+        boolean unload = "0".equals(request.get("keep_alive").asString());
+        cachedContext = unload ? "" : context;
+
+        return Map.of("model", request.get("model").asString(), "response", "{}", "done", true,
+                "prompt_eval_count", evaluatedTokens, "prompt_eval_duration", promptEvalDuration,
+                "eval_count", 1, "eval_duration", 1_000_000L);
+    }
+
+    // Roughly four characters per token
+    private static int tokens(int characters) {
+        return characters / 4;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.sales_and_inventory_with_ai.dto;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Entity <-> DTO conversions done on every list and detail response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+    private final DTOMapper mapper = new DTOMapper();
+    private Material material;
+    private Sale sale;
+
+    // Only the food item conversions depend on the recipe size
+    @State(Scope.Benchmark)
+    public static class Recipe {
+
+        @Param({"1", "10", "50"})
+        private int ingredients;
+
+        private FoodItem foodItem;
+        private FoodItemDTO foodItemDTO;
+
+        @Setup
+        public void setUp() {
+            foodItem = foodItem(ingredients);
+            foodItemDTO = new DTOMapper().toFoodItemDTO(foodItem);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        material = new Material(1L, "Flour", "kg", new BigDecimal("50.00"), new BigDecimal("100"), LocalDate.now(), null);
+        sale = new Sale(1L, foodItem(5), new BigDecimal("2"), new BigDecimal("150.00"), LocalDateTime.now(),
+                new BigDecimal("100.00"), new BigDecimal("200.00"));
+    }
+
+    @Benchmark
+    public MaterialDTO toMaterialDTO() {
+        return mapper.toMaterialDTO(material);
+    }
+
+    @Benchmark
+    public FoodItemDTO toFoodItemDTO(Recipe recipe) {
+        return mapper.toFoodItemDTO(recipe.foodItem);
+    }
+
+    @Benchmark
+    public FoodItem toFoodItemEntity(Recipe recipe) {
+        return mapper.toFoodItemEntity(recipe.foodItemDTO);
+    }
+
+    @Benchmark
+    public SaleDTO toSaleDTO() {
+        return mapper.toSaleDTO(sale);
+    }
+
+    private static FoodItem foodItem(int ingredients) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(1L);
+        foodItem.setName("Chocolate Cake");
+        foodItem.setPricePerServing(new BigDecimal("150.00"));
+        foodItem.setIngredients(new ArrayList<>());
+        for (int i = 0; i < ingredients; i++) {
+            Material ingredientMaterial = new Material((long) i, "Material " + i, "kg", new BigDecimal("10.00"),
+                    new BigDecimal("100"), LocalDate.now(), null);
+            foodItem.getIngredients().add(new Ingredient((long) i, foodItem, ingredientMaterial, new BigDecimal("0.5")));
+        }
+        return foodItem;
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.BenchmarkContext;
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ReportService queries over a year of synthetic sales; whole days come from the daily rollup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReportQueryBenchmark {
+
+    private static final int FOOD_ITEMS = 40;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"10000", "1000000"})
+    private int sales;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        reportService = context.getBean(ReportService.class);
+        List<Long> foodItemIds = createMenu(context.getBean(MaterialService.class), context.getBean(FoodItemService.class));
+        insertSales(context.getBean(JdbcTemplate.class), foodItemIds);
+        context.getBean(DailySalesRollupRepository.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> salesSummaryToday() {
+        return reportService.getSalesSummary("today");
+    }
+
+    @Benchmark
+    public Map<String, Object> salesSummaryYear() {
+        return reportService.getSalesSummary("year");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> topSellingItemsMonth() {
+        return reportService.getTopSellingItems("month", 10);
+    }
+
+    @Benchmark
+    public Map<String, Object> materialsStockReport() {
+        return reportService.getMaterialsStockReport(BigDecimal.TEN);
+    }
+
+    private static List<Long> createMenu(MaterialService materialService, FoodItemService foodItemService) {
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            materials.add(materialService.createMaterial(new Material(null, "Bench material " + i, "kg",
+                    new BigDecimal("10.00"), new BigDecimal(5 + i * 10), LocalDate.now(), null)));
+        }
+        List<Long> foodItemIds = new ArrayList<>();
+        for (int i = 0; i < FOOD_ITEMS; i++) {
+            FoodItem foodItem = new FoodItem();
+            foodItem.setName("Bench item " + i);
+            foodItem.setPricePerServing(new BigDecimal("100.00"));
+            foodItem.setIngredients(new ArrayList<>());
+            for (int j = 0; j < 3; j++) {
+                foodItem.getIngredients().add(new Ingredient(null, foodItem, materials.get((i + j) % materials.size()), new BigDecimal("0.1")));
+            }
+            foodItemIds.add(foodItemService.createFoodItem(foodItem).getId());
+        }
+        return foodItemIds;
+    }
+
+    // Plain JDBC batches: going through JPA would make setup for a million rows take far longer than the run.
+    // Ids start well above the sequence so they can't collide with sales the application inserts.
+    private void insertSales(JdbcTemplate jdbcTemplate, List<Long> foodItemIds) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < sales; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(5));
+            BigDecimal revenue = quantity.multiply(new BigDecimal("100.00"));
+            BigDecimal cost = revenue.multiply(new BigDecimal("0.35"));
+            batch.add(new Object[]{
+                    100_000_000L + i,
+                    foodItemIds.get(random.nextInt(foodItemIds.size())),
+                    quantity,
+                    new BigDecimal("100.00"),
+                    Timestamp.valueOf(now.minusSeconds(random.nextInt(365 * 24 * 3600))),
+                    revenue.subtract(cost),
+                    cost});
+            if (batch.size() == BATCH_SIZE || i == sales - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO sales (id, food_item_id, quantity_sold, sale_price, sale_date, profit, cost_of_ingredients) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.BenchmarkContext;
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// SaleService.createSale end to end against H2: recipe cache, batched stock UPDATE, insert and rollup MERGE
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaleCreateBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int ingredients;
+
+    private ConfigurableApplicationContext context;
+    private SaleService saleService;
+    private Long foodItemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        saleService = context.getBean(SaleService.class);
+        MaterialService materialService = context.getBean(MaterialService.class);
+        FoodItemService foodItemService = context.getBean(FoodItemService.class);
+
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName("Bench recipe " + ingredients);
+        foodItem.setPricePerServing(new BigDecimal("150.00"));
+        foodItem.setIngredients(new ArrayList<>());
+        for (int i = 0; i < ingredients; i++) {
+            // Enough stock that no run sells out
+            Material material = materialService.createMaterial(new Material(null, "Bench material " + i, "kg",
+                    new BigDecimal("10.00"), new BigDecimal("99999999"), LocalDate.now(), null));
+            foodItem.getIngredients().add(new Ingredient(null, foodItem, material, new BigDecimal("0.01")));
+        }
+        foodItemId = foodItemService.createFoodItem(foodItem).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Sale createSale() {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(foodItemId);
+        Sale sale = new Sale();
+        sale.setFoodItem(foodItem);
+        sale.setQuantitySold(BigDecimal.ONE);
+        sale.setSalePrice(new BigDecimal("150.00"));
+        return saleService.createSale(sale);
+    }
+}
@@ -2,8 +2,14 @@ package com.project.sales_and_inventory_with_ai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.resilience.annotation.EnableResilientMethods;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableResilientMethods
+@EnableScheduling
 public class InventoryAndSalesRestApiWithAiApplication {
 
 	public static void main(String[] args) {
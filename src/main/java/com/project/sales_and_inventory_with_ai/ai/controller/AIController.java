@@ -2,11 +2,23 @@ package com.project.sales_and_inventory_with_ai.ai.controller;
 
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatRequest;
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatResponse;
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatStreamEvent;
 import com.project.sales_and_inventory_with_ai.ai.service.AIService;
+import com.project.sales_and_inventory_with_ai.ai.service.AiBusyException;
+import com.project.sales_and_inventory_with_ai.ai.service.AiIntentRouter;
+import com.project.sales_and_inventory_with_ai.ai.service.AiRequestLimiter;
+import com.project.sales_and_inventory_with_ai.ai.service.AiResponseCache;
+import com.project.sales_and_inventory_with_ai.ai.service.AiUnavailableException;
+import com.project.sales_and_inventory_with_ai.ai.service.OllamaCircuitBreaker;
+import com.project.sales_and_inventory_with_ai.ai.service.OllamaHealthMonitor;
 import com.project.sales_and_inventory_with_ai.ai.service.OllamaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,44 +29,56 @@ import java.util.Map;
 public class AIController {
 
     private final AIService aiService;
+    private final OllamaHealthMonitor healthMonitor;
     private final OllamaService ollamaService;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final AiRequestLimiter requestLimiter;
+    private final AiIntentRouter intentRouter;
+    private final AiResponseCache responseCache;
 
+    // Served asynchronously: the servlet thread is released while the model generates
     @PostMapping("/chat")
-    public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest request) {
-        try {
-            // Validate Ollama is available
-            if (!ollamaService.isAvailable()) {
-                return ResponseEntity.ok(new ChatResponse(
-                    "Sorry, ang AI service ay hindi available ngayon. Siguraduhin na naka-run ang Ollama.",
-                    "ERROR",
-                    null,
-                    false
-                ));
-            }
+    public Mono<ResponseEntity<ChatResponse>> chat(@RequestBody ChatRequest request) {
+        // Questions that don't need the model are answered even while Ollama is down;
+        // the rest fail with AiUnavailableException, which maps to the usual "not available" reply
+        return aiService.processMessage(request)
+                .onErrorResume(e -> Mono.just(errorResponse(e)))
+                .map(ResponseEntity::ok);
+    }
 
-            ChatResponse response = aiService.processMessage(request);
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            return ResponseEntity.ok(new ChatResponse(
-                "Sorry, may problema sa pag-process ng request. Error: " + e.getMessage(),
-                "ERROR",
-                null,
-                false
-            ));
-        }
+    // Server-sent events: "token" events carry message text as it is generated, then one "result" event
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> chatStream(@RequestBody ChatRequest request) {
+        return aiService.streamMessage(request)
+                .onErrorResume(e -> Flux.just(ChatStreamEvent.result(errorResponse(e))))
+                .map(event -> ServerSentEvent.builder(event.getData()).event(event.getEvent()).build())
+                // Commit the response right away instead of after the first generated token
+                .startWith(ServerSentEvent.builder().comment("connected").build());
+    }
+
+    @GetMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> chatStream(
+            @RequestParam String message,
+            @RequestParam(required = false) String conversationId) {
+        return chatStream(new ChatRequest(message, conversationId));
     }
 
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
         Map<String, Object> status = new HashMap<>();
-        boolean ollamaAvailable = ollamaService.isAvailable();
+        boolean ollamaAvailable = healthMonitor.isAvailable();
         
         status.put("ollamaAvailable", ollamaAvailable);
         status.put("status", ollamaAvailable ? "READY" : "OFFLINE");
         status.put("message", ollamaAvailable 
             ? "AI service is ready!" 
             : "Ollama is not running. Please start Ollama first.");
+        status.put("lastChecked", healthMonitor.getLastChecked());
+        status.put("circuitBreaker", circuitBreaker.getStats());
+        status.put("requests", requestLimiter.getStats());
+        status.put("backends", ollamaService.getStats());
+        status.put("intentRouter", intentRouter.getStats());
+        status.put("responseCache", responseCache.getStats());
         
         return ResponseEntity.ok(status);
     }
@@ -82,4 +106,33 @@ public class AIController {
         
         return ResponseEntity.ok(help);
     }
+
+    private ChatResponse unavailableResponse() {
+        return new ChatResponse(
+            "Sorry, ang AI service ay hindi available ngayon. Siguraduhin na naka-run ang Ollama.",
+            "ERROR",
+            null,
+            false
+        );
+    }
+
+    private ChatResponse errorResponse(Throwable e) {
+        if (e instanceof AiUnavailableException) {
+            return unavailableResponse();
+        }
+        if (e instanceof AiBusyException) {
+            return new ChatResponse(
+                "Sorry, maraming request ngayon. Pakisubukan ulit mamaya.",
+                "BUSY",
+                null,
+                false
+            );
+        }
+        return new ChatResponse(
+            "Sorry, may problema sa pag-process ng request. Error: " + e.getMessage(),
+            "ERROR",
+            null,
+            false
+        );
+    }
 }
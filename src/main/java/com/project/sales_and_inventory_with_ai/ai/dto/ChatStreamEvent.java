@@ -0,0 +1,24 @@
+package com.project.sales_and_inventory_with_ai.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// One server-sent event of a streamed chat: message text as it is generated, then the final result
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatStreamEvent {
+    private String event;
+    private Object data;
+
+    public static ChatStreamEvent token(String text) {
+        return new ChatStreamEvent("token", Map.of("text", text));
+    }
+
+    public static ChatStreamEvent result(ChatResponse response) {
+        return new ChatStreamEvent("result", response);
+    }
+}
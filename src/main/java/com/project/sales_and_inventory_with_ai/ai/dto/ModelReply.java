@@ -0,0 +1,21 @@
+package com.project.sales_and_inventory_with_ai.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The JSON object the system prompt asks the model to answer with
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ModelReply {
+    private String action;
+    private Map<String, Object> parameters = new HashMap<>();
+    private String message;
+    private boolean needsMoreInfo;
+}
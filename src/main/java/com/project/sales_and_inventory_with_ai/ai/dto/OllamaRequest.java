@@ -1,18 +1,24 @@
 package com.project.sales_and_inventory_with_ai.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OllamaRequest {
     private String model;
+    // Sent separately from the prompt so the evaluated system prefix can be reused between requests
+    private String system;
     private String prompt;
     private boolean stream = false;
+    // How long Ollama keeps the model (and its cached context) loaded after this request, e.g. "30m"
+    @JsonProperty("keep_alive")
+    private String keepAlive;
     private OllamaOptions options;
 
     @Data
@@ -20,6 +26,7 @@ public class OllamaRequest {
     @AllArgsConstructor
     public static class OllamaOptions {
         private Double temperature = 0.7;
+        @JsonProperty("num_predict")
         private Integer numPredict = 500;
     }
 }
@@ -1,5 +1,6 @@
 package com.project.sales_and_inventory_with_ai.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +12,23 @@ public class OllamaResponse {
     private String model;
     private String response;
     private boolean done;
+    
+    // Timings reported with the final response; durations are in nanoseconds
+    @JsonProperty("total_duration")
+    private Long totalDuration;
+    
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+    
+    @JsonProperty("prompt_eval_count")
+    private Integer promptEvalCount;
+    
+    @JsonProperty("prompt_eval_duration")
+    private Long promptEvalDuration;
+    
+    @JsonProperty("eval_count")
+    private Integer evalCount;
+    
+    @JsonProperty("eval_duration")
+    private Long evalDuration;
 }
@@ -2,10 +2,15 @@ package com.project.sales_and_inventory_with_ai.ai.service;
 
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatRequest;
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatResponse;
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatStreamEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface AIService {
     
-    ChatResponse processMessage(ChatRequest request);
+    Mono<ChatResponse> processMessage(ChatRequest request);
+    
+    Flux<ChatStreamEvent> streamMessage(ChatRequest request);
     
     String generatePrompt(String userMessage);
 }
@@ -1,20 +1,24 @@
 package com.project.sales_and_inventory_with_ai.ai.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatRequest;
 import com.project.sales_and_inventory_with_ai.ai.dto.ChatResponse;
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatStreamEvent;
+import com.project.sales_and_inventory_with_ai.ai.dto.ModelReply;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,28 +26,94 @@ import java.util.Map;
 public class AIServiceImpl implements AIService {
 
     private final OllamaService ollamaService;
+    private final OllamaHealthMonitor healthMonitor;
+    private final AiRequestLimiter requestLimiter;
+    private final AiIntentRouter intentRouter;
+    private final AiResponseCache responseCache;
     private final MaterialService materialService;
     private final FoodItemService foodItemService;
     private final SaleService saleService;
     private final ReportService reportService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelReplyParser replyParser;
+
+    // Identical on every request, so Ollama can keep its evaluated context instead of re-reading it
+    static final String SYSTEM_PROMPT = buildSystemPrompt();
 
     @Override
-    public ChatResponse processMessage(ChatRequest request) {
+    public Mono<ChatResponse> processMessage(ChatRequest request) {
         log.info("Processing message: {}", request.getMessage());
         
+        Optional<AiIntent> known = answerWithoutModel(request.getMessage());
+        if (known.isPresent()) {
+            return Mono.fromCallable(() -> respond(known.get()))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        if (!healthMonitor.isAvailable()) {
+            return Mono.error(new AiUnavailableException("Ollama is not available"));
+        }
+        
         // Generate prompt with system context
         String prompt = generatePrompt(request.getMessage());
         
-        // Get AI response
-        String aiResponse = ollamaService.chat(prompt);
+        // Get AI response through the limiter, which sheds load with AiBusyException when full
+        return requestLimiter.submit(() -> ollamaService.chat(OllamaRole.CLASSIFY, SYSTEM_PROMPT, prompt))
+                // Actions use JPA, so run them off the HTTP client's event loop
+                .publishOn(Schedulers.boundedElastic())
+                // Parse AI response and execute actions
+                .map(aiResponse -> parseAndExecute(aiResponse, request.getMessage()));
+    }
+
+    @Override
+    public Flux<ChatStreamEvent> streamMessage(ChatRequest request) {
+        log.info("Streaming message: {}", request.getMessage());
+        
+        Optional<AiIntent> known = answerWithoutModel(request.getMessage());
+        if (known.isPresent()) {
+            return Mono.fromCallable(() -> respond(known.get()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(response -> Flux.just(ChatStreamEvent.token(response.getMessage()), ChatStreamEvent.result(response)));
+        }
+        if (!healthMonitor.isAvailable()) {
+            return Flux.error(new AiUnavailableException("Ollama is not available"));
+        }
+        
+        String prompt = generatePrompt(request.getMessage());
         
-        // Parse AI response and execute actions
-        return parseAndExecute(aiResponse, request.getMessage());
+        return Flux.defer(() -> {
+            StreamingFieldExtractor messageExtractor = new StreamingFieldExtractor("message");
+            JsonObjectExtractor objectExtractor = new JsonObjectExtractor();
+            StringBuilder aiResponse = new StringBuilder();
+            
+            // Forward the "message" text as soon as its characters are generated. Same prompt and role as
+            // processMessage, so a message goes to the same JSON-tuned model whichever endpoint is used
+            Flux<ChatStreamEvent> tokens = requestLimiter.submitMany(() -> ollamaService.chatStream(OllamaRole.CLASSIFY, SYSTEM_PROMPT, prompt))
+                    .doOnNext(aiResponse::append)
+                    // Stop generating once the JSON object closes; anything after it would be thrown away
+                    .takeUntil(objectExtractor::feed)
+                    .map(messageExtractor::feed)
+                    .filter(text -> !text.isEmpty())
+                    .map(ChatStreamEvent::token);
+            
+            // Once the JSON is complete, run the action like the non-streaming chat does
+            Mono<ChatStreamEvent> result = Mono.fromCallable(() -> parseAndExecute(aiResponse, request.getMessage()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(ChatStreamEvent::result);
+            
+            return tokens.concatWith(result);
+        });
     }
 
     @Override
     public String generatePrompt(String userMessage) {
+        return userPrompt(userMessage);
+    }
+
+    // Only the per-message part; SYSTEM_PROMPT goes in the request's system field
+    static String userPrompt(String userMessage) {
+        return "User message: " + userMessage + "\n" + "Response (JSON only):";
+    }
+
+    private static String buildSystemPrompt() {
         StringBuilder prompt = new StringBuilder();
         
         // System role and context
@@ -71,44 +141,15 @@ public class AIServiceImpl implements AIService {
         prompt.append("Response: {\"action\":\"ADD_MATERIAL\",\"parameters\":{\"name\":\"Egg\",\"quantity\":5,\"unit\":\"pieces\"},\"message\":\"Magkano po ang presyo per piece?\",\"needsMoreInfo\":true}\n\n");
         
         prompt.append("User: 'magkano kinita ko today?'\n");
-        prompt.append("Response: {\"action\":\"VIEW_PROFIT\",\"parameters\":{\"period\":\"today\"},\"message\":\"Tingnan natin ang profit mo ngayong araw...\",\"needsMoreInfo\":false}\n\n");
-        
-        prompt.append("User message: ").append(userMessage).append("\n");
-        prompt.append("Response (JSON only):");
+        prompt.append("Response: {\"action\":\"VIEW_PROFIT\",\"parameters\":{\"period\":\"today\"},\"message\":\"Tingnan natin ang profit mo ngayong araw...\",\"needsMoreInfo\":false}");
         
         return prompt.toString();
     }
 
-    private ChatResponse parseAndExecute(String aiResponse, String originalMessage) {
-        try {
-            // Clean the response - remove markdown code blocks if present
-            String cleanedResponse = aiResponse
-                    .replaceAll("```json\\s*", "")
-                    .replaceAll("```\\s*", "")
-                    .trim();
-            
-            // Parse AI response
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseMap = objectMapper.readValue(cleanedResponse, Map.class);
-            
-            String action = (String) responseMap.get("action");
-            String message = (String) responseMap.get("message");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> parameters = (Map<String, Object>) responseMap.getOrDefault("parameters", new HashMap<>());
-            boolean needsMoreInfo = (Boolean) responseMap.getOrDefault("needsMoreInfo", false);
-            
-            if (needsMoreInfo) {
-                // AI needs more information, just return the message
-                return new ChatResponse(message, action, null, true);
-            }
-            
-            // Execute action
-            Object result = executeAction(action, parameters);
-            
-            return new ChatResponse(message, action, result, false);
-            
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse AI response: {}", e.getMessage());
+    private ChatResponse parseAndExecute(CharSequence aiResponse, String originalMessage) {
+        // The model sometimes wraps the JSON in markdown fences or adds text around it
+        Optional<ModelReply> parsed = replyParser.parse(aiResponse);
+        if (parsed.isEmpty()) {
             return new ChatResponse(
                 "Sorry, hindi ko naintindihan yung request. Pwede mo bang ulitin?",
                 "ERROR",
@@ -116,39 +157,80 @@ public class AIServiceImpl implements AIService {
                 false
             );
         }
+        
+        ModelReply reply = parsed.get();
+        String action = reply.getAction();
+        String message = reply.getMessage();
+        Map<String, Object> parameters = reply.getParameters() != null ? reply.getParameters() : new HashMap<>();
+        
+        if (reply.isNeedsMoreInfo()) {
+            // AI needs more information, just return the message
+            return new ChatResponse(message, action, null, true);
+        }
+        
+        // Execute action; only an interpretation that ran is remembered, and the cache keeps read-only actions only
+        Object result;
+        try {
+            result = runAction(action, parameters);
+            responseCache.put(originalMessage, action, parameters, message);
+        } catch (Exception e) {
+            result = actionFailed(action, e);
+        }
+        
+        return new ChatResponse(message, action, result, false);
+    }
+
+    // Plain questions are matched by keyword, repeated ones come from the cache; neither needs Ollama running
+    private Optional<AiIntent> answerWithoutModel(String userMessage) {
+        return intentRouter.route(userMessage)
+                .or(() -> responseCache.get(userMessage));
+    }
+
+    private ChatResponse respond(AiIntent intent) {
+        log.debug("Answering without the model: {}", intent.action());
+        Object result = executeAction(intent.action(), intent.parameters());
+        return new ChatResponse(intent.message(), intent.action(), result, false);
     }
 
     private Object executeAction(String action, Map<String, Object> parameters) {
         try {
-            switch (action) {
-                case "VIEW_MATERIALS":
-                    return materialService.getAllMaterials();
-                    
-                case "VIEW_PROFIT":
-                    String period = (String) parameters.getOrDefault("period", "today");
-                    return reportService.getSalesSummary(period);
-                    
-                case "VIEW_STOCK":
-                    BigDecimal threshold = new BigDecimal(
-                        parameters.getOrDefault("threshold", "10").toString()
-                    );
-                    return reportService.getMaterialsStockReport(threshold);
-                    
-                case "VIEW_TOP_ITEMS":
-                    String topPeriod = (String) parameters.getOrDefault("period", "today");
-                    int limit = Integer.parseInt(parameters.getOrDefault("limit", "5").toString());
-                    return reportService.getTopSellingItems(topPeriod, limit);
-                    
-                case "ADD_MATERIAL":
-                    // This would need complete parameters - for now just return info needed
-                    return parameters;
-                    
-                default:
-                    return "Action not yet implemented: " + action;
-            }
+            return runAction(action, parameters);
         } catch (Exception e) {
-            log.error("Error executing action {}: {}", action, e.getMessage());
-            return "Error: " + e.getMessage();
+            return actionFailed(action, e);
         }
     }
+
+    private Object runAction(String action, Map<String, Object> parameters) {
+        switch (action) {
+            case "VIEW_MATERIALS":
+                return materialService.getAllMaterials();
+                
+            case "VIEW_PROFIT":
+                String period = (String) parameters.getOrDefault("period", "today");
+                return reportService.getSalesSummary(period);
+                
+            case "VIEW_STOCK":
+                // Without a threshold each material is judged by its own reorder point
+                Object thresholdParam = parameters.get("threshold");
+                BigDecimal threshold = thresholdParam != null ? new BigDecimal(thresholdParam.toString()) : null;
+                return reportService.getMaterialsStockReport(threshold);
+                
+            case "VIEW_TOP_ITEMS":
+                String topPeriod = (String) parameters.getOrDefault("period", "today");
+                int limit = Integer.parseInt(parameters.getOrDefault("limit", "5").toString());
+                return reportService.getTopSellingItems(topPeriod, limit);
+                
+            case "ADD_MATERIAL":
+                // This would need complete parameters - for now just return info needed
+                return parameters;
+                
+            default:
+                return "Action not yet implemented: " + action;
+        }
+    }
+
+    private Object actionFailed(String action, Exception e) {
+        log.error("Error executing action {}: {}", action, e.getMessage());
+        return "Error: " + e.getMessage();
+    }
 }
@@ -0,0 +1,9 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+// Thrown when the LLM request limiter (or every Ollama endpoint for the model) is full and the request was shed instead of queued
+public class AiBusyException extends RuntimeException {
+
+    public AiBusyException(String message) {
+        super(message);
+    }
+}
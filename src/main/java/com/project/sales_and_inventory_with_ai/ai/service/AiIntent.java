@@ -0,0 +1,7 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import java.util.Map;
+
+// What a chat message asks for: the action to run, its parameters and the reply shown with the result
+public record AiIntent(String action, Map<String, Object> parameters, String message) {
+}
@@ -0,0 +1,235 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Answers the common read-only questions (materials, stock, profit, top items) from Taglish keywords,
+// so only messages it is unsure about wait for the model
+@Component
+public class AiIntentRouter {
+
+    public record Classification(AiIntent intent, double confidence) {
+    }
+
+    private enum Intent {
+        VIEW_MATERIALS,
+        VIEW_STOCK,
+        VIEW_PROFIT,
+        VIEW_TOP_ITEMS
+    }
+
+    // Anything that records or changes data needs the model to pull out names, quantities and prices
+    private static final List<String> WRITE_CUES = padded(
+            "bumili", "binili", "bibili", "nabili", "nagbenta", "nakabenta", "binenta", "ibenta", "magbenta",
+            "bought", "buy", "purchased", "sold", "sell", "add", "idagdag", "dagdag", "magdagdag", "bagong",
+            "record", "irecord", "i record", "delete", "burahin", "update", "palitan", "new");
+
+    private static final Map<Intent, List<String>> INTENT_CUES = Map.of(
+            Intent.VIEW_TOP_ITEMS, padded("best selling", "best seller", "best sellers", "bestseller", "bestsellers",
+                    "pinakamabenta", "mabenta", "top selling", "top items", "top products", "top sellers"),
+            Intent.VIEW_PROFIT, padded("kinita", "kita", "kumita", "profit", "tubo", "income", "earnings",
+                    "sales summary", "total sales"),
+            Intent.VIEW_STOCK, padded("low stock", "stock", "stocks", "paubos", "ubos", "mauubos", "kulang",
+                    "natitira", "reorder"),
+            Intent.VIEW_MATERIALS, padded("materials", "material", "ingredients", "sangkap", "inventory", "imbentaryo"));
+
+    // Phrasings of a request or question; "pa show" is how "pa-show" looks after normalizing
+    private static final List<String> REQUEST_CUES = padded(
+            "ano", "anu", "magkano", "ilan", "pakita", "ipakita", "show", "list", "check", "tingnan", "patingin",
+            "view", "what", "how much", "pa", "paki", "lahat", "give");
+
+    // Listed from most to least specific; values are the periods ReportService accepts.
+    // Cues are padded with spaces so they only match whole words of the padded, normalized message.
+    private static final Map<String, String> PERIOD_CUES = new LinkedHashMap<>();
+
+    static {
+        PERIOD_CUES.put(" 2 days ", "2days");
+        PERIOD_CUES.put(" 2days ", "2days");
+        PERIOD_CUES.put(" dalawang araw ", "2days");
+        PERIOD_CUES.put(" two days ", "2days");
+        PERIOD_CUES.put(" 7 days ", "week");
+        PERIOD_CUES.put(" week ", "week");
+        PERIOD_CUES.put(" weekly ", "week");
+        PERIOD_CUES.put(" linggo ", "week");
+        PERIOD_CUES.put(" lingo ", "week");
+        PERIOD_CUES.put(" 30 days ", "month");
+        PERIOD_CUES.put(" month ", "month");
+        PERIOD_CUES.put(" monthly ", "month");
+        PERIOD_CUES.put(" buwan ", "month");
+        PERIOD_CUES.put(" year ", "year");
+        PERIOD_CUES.put(" yearly ", "year");
+        PERIOD_CUES.put(" taon ", "year");
+        PERIOD_CUES.put(" today ", "today");
+        PERIOD_CUES.put(" ngayon ", "today");
+        PERIOD_CUES.put(" ngayong araw ", "today");
+        PERIOD_CUES.put(" araw na ito ", "today");
+    }
+
+    // Time references the reports cannot express; the model can ask the user to rephrase
+    private static final List<String> UNSUPPORTED_TIME_CUES = padded(
+            "kahapon", "yesterday", "last", "nakaraang", "noong", "kanina", "bukas", "tomorrow", "between", "from");
+
+    private static final Pattern NUMBER = Pattern.compile("\\b(\\d{1,4})\\b");
+
+    private static final Map<String, String> PERIOD_LABELS = Map.of(
+            "today", "ngayong araw",
+            "2days", "nitong nakaraang 2 araw",
+            "week", "ngayong linggo",
+            "month", "ngayong buwan",
+            "year", "ngayong taon");
+
+    private final double minConfidence;
+    private final AtomicLong routed = new AtomicLong();
+    private final AtomicLong passedToModel = new AtomicLong();
+
+    public AiIntentRouter(@Value("${ollama.intent-router.min-confidence:0.8}") double minConfidence) {
+        this.minConfidence = minConfidence;
+    }
+
+    // Empty when the message should go to the model instead
+    public Optional<AiIntent> route(String userMessage) {
+        Classification classification = classify(userMessage);
+        if (classification.intent() != null && classification.confidence() >= minConfidence) {
+            routed.incrementAndGet();
+            return Optional.of(classification.intent());
+        }
+        passedToModel.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public Classification classify(String userMessage) {
+        String normalized = AiResponseCache.normalize(userMessage);
+        String text = " " + normalized + " ";
+        if (normalized.isEmpty() || containsAny(text, WRITE_CUES)) {
+            return new Classification(null, 0.0);
+        }
+
+        Set<Intent> matched = EnumSet.noneOf(Intent.class);
+        INTENT_CUES.forEach((intent, cues) -> {
+            if (containsAny(text, cues)) {
+                matched.add(intent);
+            }
+        });
+        // "stock ng materials" is a stock question
+        if (matched.contains(Intent.VIEW_STOCK)) {
+            matched.remove(Intent.VIEW_MATERIALS);
+        }
+        if (matched.size() != 1) {
+            return new Classification(null, matched.isEmpty() ? 0.0 : 0.3);
+        }
+        Intent intent = matched.iterator().next();
+
+        double confidence = 0.7;
+        if (containsAny(text, REQUEST_CUES)) {
+            confidence += 0.2;
+        }
+
+        List<String> periods = findPeriods(text);
+        String period = periods.isEmpty() ? "today" : periods.get(0);
+        boolean usesPeriod = intent == Intent.VIEW_PROFIT || intent == Intent.VIEW_TOP_ITEMS;
+        if (!usesPeriod || periods.size() == 1) {
+            confidence += 0.1;
+        }
+        if (periods.size() > 1 || containsAny(text, UNSUPPORTED_TIME_CUES)) {
+            confidence -= 0.5;
+        }
+
+        Map<String, Object> parameters = new HashMap<>();
+        List<Integer> numbers = findNumbers(stripPeriods(text));
+        if (intent == Intent.VIEW_TOP_ITEMS && numbers.size() == 1) {
+            parameters.put("limit", numbers.get(0));
+        } else if (intent == Intent.VIEW_STOCK && numbers.size() == 1) {
+            parameters.put("threshold", numbers.get(0));
+        } else if (!numbers.isEmpty()) {
+            // A number we can't place usually means a detail the keywords would lose
+            confidence -= 0.5;
+        }
+        if (usesPeriod) {
+            parameters.put("period", period);
+        }
+        if (normalized.split(" ").length > 12) {
+            confidence -= 0.2;
+        }
+
+        // Rounded so that 0.7 + 0.1 compares as 0.8
+        return new Classification(new AiIntent(intent.name(), parameters, reply(intent, period)),
+                Math.round(confidence * 100) / 100.0);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long total = routed.get() + passedToModel.get();
+        stats.put("routed", routed.get());
+        stats.put("passedToModel", passedToModel.get());
+        stats.put("routedRate", total == 0 ? 0.0 : (double) routed.get() / total);
+        return stats;
+    }
+
+    private static String reply(Intent intent, String period) {
+        return switch (intent) {
+            case VIEW_MATERIALS -> "Eto po ang listahan ng materials sa inventory...";
+            case VIEW_STOCK -> "Eto po ang stock levels at ang mga low stock items...";
+            case VIEW_PROFIT -> "Tingnan natin ang profit mo " + PERIOD_LABELS.get(period) + "...";
+            case VIEW_TOP_ITEMS -> "Eto po ang best-selling items " + PERIOD_LABELS.get(period) + "...";
+        };
+    }
+
+    private static List<String> findPeriods(String text) {
+        List<String> periods = new ArrayList<>();
+        String remaining = text;
+        for (Map.Entry<String, String> cue : PERIOD_CUES.entrySet()) {
+            String phrase = cue.getKey();
+            if (remaining.contains(phrase)) {
+                if (!periods.contains(cue.getValue())) {
+                    periods.add(cue.getValue());
+                }
+                // Keeps "ngayong araw" from also counting as a bare "araw" mention later on
+                remaining = remaining.replace(phrase, " ");
+            }
+        }
+        return periods;
+    }
+
+    private static String stripPeriods(String text) {
+        String stripped = text;
+        for (String cue : PERIOD_CUES.keySet()) {
+            stripped = stripped.replace(cue, " ");
+        }
+        return stripped;
+    }
+
+    private static List<Integer> findNumbers(String text) {
+        List<Integer> numbers = new ArrayList<>();
+        Matcher matcher = NUMBER.matcher(text);
+        while (matcher.find()) {
+            numbers.add(Integer.parseInt(matcher.group(1)));
+        }
+        return numbers;
+    }
+
+    private static List<String> padded(String... phrases) {
+        return Arrays.stream(phrases).map(phrase -> " " + phrase + " ").toList();
+    }
+
+    private static boolean containsAny(String text, List<String> phrases) {
+        for (String phrase : phrases) {
+            if (text.contains(phrase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
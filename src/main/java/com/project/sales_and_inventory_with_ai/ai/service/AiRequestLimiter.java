@@ -0,0 +1,128 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Caps how many LLM calls run at once; a bounded number wait in line and everything beyond that is rejected
+@Component
+@Slf4j
+public class AiRequestLimiter {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Timer queueWait;
+    private final Counter rejectedCounter;
+
+    public AiRequestLimiter(
+            @Value("${ollama.max-concurrent:2}") int maxConcurrent,
+            @Value("${ollama.max-queued:8}") int maxQueued,
+            MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueWait = Timer.builder("ollama.queue.wait")
+                .description("Time an AI request waits for a free generation slot")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ollama.requests.rejected")
+                .description("AI requests turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("ollama.requests.running", running, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("ollama.requests.queued", waiting, Queue::size).register(meterRegistry);
+    }
+
+    public <T> Mono<T> submit(Supplier<Mono<T>> task) {
+        return submitMany(() -> task.get().flux()).singleOrEmpty();
+    }
+
+    // Same limit for streamed calls; the slot is held until the stream completes, fails or is cancelled
+    public <T> Flux<T> submitMany(Supplier<Flux<T>> task) {
+        return Flux.create(sink -> {
+            if (admitted.incrementAndGet() > maxConcurrent + maxQueued) {
+                admitted.decrementAndGet();
+                rejected.incrementAndGet();
+                rejectedCounter.increment();
+                log.warn("AI request rejected: {} running, {} queued", running.get(), waiting.size());
+                sink.error(new AiBusyException("AI request queue is full"));
+                return;
+            }
+            
+            Disposable.Swap call = Disposables.swap();
+            sink.onDispose(call);
+            long queuedAt = System.nanoTime();
+            waiting.add(() -> {
+                // The client went away while queued
+                if (sink.isCancelled()) {
+                    release();
+                    return;
+                }
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                call.update(Flux.defer(task)
+                        .doFinally(signal -> release())
+                        .subscribe(sink::next, sink::error, sink::complete));
+            });
+            drain();
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running.get());
+        stats.put("queued", waiting.size());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("maxQueued", maxQueued);
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    private void release() {
+        running.decrementAndGet();
+        admitted.decrementAndGet();
+        drain();
+    }
+
+    // Starts queued calls while there are free slots
+    private void drain() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxConcurrent) {
+                return;
+            }
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            
+            Runnable next = waiting.poll();
+            if (next == null) {
+                running.decrementAndGet();
+                // Another thread may have queued a call after our poll but before we gave the slot back
+                if (waiting.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Remembers which action and parameters the model chose for a message, so repeated questions skip generation.
+// Only the interpretation is cached; the action still runs against live data on every hit.
+@Component
+public class AiResponseCache {
+
+    // Read-only actions; anything that changes data or asks a follow-up always goes to the model
+    private static final Set<String> CACHEABLE_ACTIONS = Set.of("VIEW_MATERIALS", "VIEW_PROFIT", "VIEW_STOCK", "VIEW_TOP_ITEMS");
+
+    private record Entry(AiIntent intent, Instant storedAt) {
+    }
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    @Autowired
+    public AiResponseCache(
+            @Value("${ollama.response-cache.max-entries:256}") int maxEntries,
+            @Value("${ollama.response-cache.ttl-seconds:3600}") int ttlSeconds) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    AiResponseCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        // Access order makes iteration least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > AiResponseCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Optional<AiIntent> get(String userMessage) {
+        String key = normalize(userMessage);
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            expirations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry.intent());
+    }
+
+    public synchronized void put(String userMessage, String action, Map<String, Object> parameters, String message) {
+        if (action == null || !CACHEABLE_ACTIONS.contains(action)) {
+            return;
+        }
+        entries.put(normalize(userMessage), new Entry(
+                new AiIntent(action, parameters != null ? Collections.unmodifiableMap(new HashMap<>(parameters)) : Map.of(), message), clock.instant()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = hits + misses;
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("evictions", evictions);
+        stats.put("expirations", expirations);
+        return stats;
+    }
+
+    // "Magkano kinita ko today??" and "magkano  kinita ko today" share one entry
+    static String normalize(String userMessage) {
+        if (userMessage == null) {
+            return "";
+        }
+        return NON_WORD.matcher(userMessage.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return !clock.instant().isBefore(entry.storedAt().plus(ttl));
+    }
+}
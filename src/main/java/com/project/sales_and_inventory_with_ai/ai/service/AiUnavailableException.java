@@ -0,0 +1,9 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+// Thrown instead of calling Ollama while the circuit breaker is open
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
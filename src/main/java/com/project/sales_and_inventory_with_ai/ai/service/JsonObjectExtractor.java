@@ -0,0 +1,69 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+// Finds the first complete top-level JSON object in model output, skipping markdown fences or prose around it.
+// Tracks nesting and string state only, so it can be fed while the output is still streaming.
+// Not thread-safe: use one instance per response.
+public class JsonObjectExtractor {
+
+    private int position;
+    private int start = -1;
+    private int end = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    // Returns true once the object is closed; anything fed after that is ignored
+    public boolean feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length() && end < 0; i++, position++) {
+            accept(chunk.charAt(i));
+        }
+        return isComplete();
+    }
+
+    public boolean isComplete() {
+        return end >= 0;
+    }
+
+    // Offset of the opening brace in everything fed so far, or -1
+    public int getStart() {
+        return start;
+    }
+
+    // Offset just past the closing brace, or -1 while the object is still open
+    public int getEnd() {
+        return end;
+    }
+
+    private void accept(char c) {
+        if (start < 0) {
+            if (c == '{') {
+                start = position;
+                depth = 1;
+            }
+            return;
+        }
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> inString = true;
+            case '{', '[' -> depth++;
+            case '}', ']' -> {
+                if (--depth == 0) {
+                    end = position + 1;
+                }
+            }
+            default -> {
+                // Values and separators don't change nesting
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.project.sales_and_inventory_with_ai.ai.dto.ModelReply;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Reader;
+import java.util.Optional;
+
+// Reads the model's JSON reply straight out of its raw output, without cleaning or copying the text first
+@Component
+@Slf4j
+public class ModelReplyParser {
+
+    private final ObjectReader replyReader;
+
+    public ModelReplyParser(JsonMapper jsonMapper) {
+        this.replyReader = jsonMapper.readerFor(ModelReply.class);
+    }
+
+    // Empty when the output holds no complete JSON object or it doesn't parse
+    public Optional<ModelReply> parse(CharSequence output) {
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+        if (!extractor.feed(output)) {
+            log.error("No JSON object in AI response");
+            return Optional.empty();
+        }
+        try {
+            ModelReply reply = replyReader.readValue(new CharSequenceReader(output, extractor.getStart(), extractor.getEnd()));
+            return Optional.ofNullable(reply);
+        } catch (JacksonException e) {
+            log.error("Failed to parse AI response: {}", e.getOriginalMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Serves a slice of the output to Jackson in place
+    private static class CharSequenceReader extends Reader {
+
+        private final CharSequence text;
+        private final int end;
+        private int next;
+
+        CharSequenceReader(CharSequence text, int start, int end) {
+            this.text = text;
+            this.next = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (next >= end) {
+                return -1;
+            }
+            int count = Math.min(length, end - next);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = text.charAt(next++);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
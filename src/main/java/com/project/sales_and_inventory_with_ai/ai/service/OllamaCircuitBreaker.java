@@ -0,0 +1,121 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Stops sending requests to Ollama after repeated failures so callers fail fast instead of waiting on timeouts.
+// CLOSED: calls go through. OPEN: calls are refused. HALF_OPEN: one trial call decides whether to close again.
+@Component
+@Slf4j
+public class OllamaCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    @Autowired
+    public OllamaCircuitBreaker(
+            @Value("${ollama.circuit-breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${ollama.circuit-breaker.open-seconds:30}") int openSeconds) {
+        this(failureThreshold, Duration.ofSeconds(openSeconds), Clock.systemUTC());
+    }
+
+    OllamaCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    // Called before each call; in HALF_OPEN only one caller gets through until that trial reports back
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            transitionTo(State.HALF_OPEN);
+        }
+        
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> trialInFlight.compareAndSet(false, true);
+        };
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight.set(false);
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight.set(false);
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    // A call that was admitted but cancelled before it finished says nothing about Ollama's health
+    public void recordCancelled() {
+        trialInFlight.set(false);
+    }
+
+    // Health probe failed: Ollama is unreachable, no need to wait for the threshold
+    public synchronized void trip() {
+        if (state != State.OPEN) {
+            open();
+        }
+    }
+
+    // Health probe succeeded: let the next real call try instead of waiting for the open period to end
+    public synchronized void probeSucceeded() {
+        if (state == State.OPEN) {
+            transitionTo(State.HALF_OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("state", state);
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("openedAt", openedAt);
+        return stats;
+    }
+
+    private void open() {
+        openedAt = clock.instant();
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            log.warn("Ollama circuit breaker {} -> {}", state, newState);
+        }
+        state = newState;
+        trialInFlight.set(false);
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One Ollama server in the pool, with the number of requests it is working on right now
+public class OllamaEndpoint {
+
+    private final String name;
+    private final String baseUrl;
+    private final List<String> models;
+    private final int maxConcurrent;
+    private final WebClient webClient;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong served = new AtomicLong();
+
+    public OllamaEndpoint(String name, String baseUrl, List<String> models, int maxConcurrent, WebClient webClient) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.models = List.copyOf(models);
+        this.maxConcurrent = maxConcurrent;
+        this.webClient = webClient;
+    }
+
+    public boolean serves(String model) {
+        return models.isEmpty() || models.contains(model);
+    }
+
+    boolean hasCapacity() {
+        return outstanding.get() < maxConcurrent;
+    }
+
+    // Takes a slot unless the endpoint is already at its cap
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = outstanding.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+        } while (!outstanding.compareAndSet(current, current + 1));
+        served.incrementAndGet();
+        return true;
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WebClient getWebClient() {
+        return webClient;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("baseUrl", baseUrl);
+        stats.put("models", models);
+        stats.put("outstanding", outstanding.get());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("served", served.get());
+        return stats;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Picks the Ollama server for each request: among those serving the model and under their cap,
+// the one with the fewest requests in flight
+@Component
+public class OllamaEndpointPool {
+
+    private final List<OllamaEndpoint> endpoints;
+
+    @Autowired
+    public OllamaEndpointPool(OllamaProperties properties, WebClient ollamaWebClient) {
+        this(properties.resolvedEndpoints().stream()
+                .map(endpoint -> new OllamaEndpoint(
+                        endpoint.getName() != null ? endpoint.getName() : endpoint.getBaseUrl(),
+                        endpoint.getBaseUrl(), endpoint.getModels(), endpoint.getMaxConcurrent(),
+                        ollamaWebClient.mutate().baseUrl(endpoint.getBaseUrl()).build()))
+                .toList());
+    }
+
+    OllamaEndpointPool(List<OllamaEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    // Callers must release() the endpoint when the request finishes
+    public Optional<OllamaEndpoint> acquire(String model, Collection<OllamaEndpoint> excluded) {
+        // Another request may take the least loaded endpoint's last slot between sorting and acquiring
+        while (true) {
+            Optional<OllamaEndpoint> candidate = endpoints.stream()
+                    .filter(endpoint -> endpoint.serves(model) && !excluded.contains(endpoint))
+                    .filter(OllamaEndpoint::hasCapacity)
+                    .min(Comparator.comparingInt(OllamaEndpoint::getOutstanding));
+            if (candidate.isEmpty() || candidate.get().tryAcquire()) {
+                return candidate;
+            }
+        }
+    }
+
+    public void release(OllamaEndpoint endpoint) {
+        endpoint.release();
+    }
+
+    public boolean hasEndpointFor(String model) {
+        return endpoints.stream().anyMatch(endpoint -> endpoint.serves(model));
+    }
+
+    public List<OllamaEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> stats.put(endpoint.getName(), endpoint.getStats()));
+        return stats;
+    }
+}
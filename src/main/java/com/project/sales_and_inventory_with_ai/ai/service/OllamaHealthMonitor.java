@@ -0,0 +1,64 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Probes Ollama in the background so request paths read cached availability instead of probing themselves
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OllamaHealthMonitor {
+
+    private final OllamaService ollamaService;
+    private final OllamaCircuitBreaker circuitBreaker;
+
+    // Optimistic until the first probe, which runs at startup
+    private volatile boolean available = true;
+    private volatile LocalDateTime lastChecked;
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ollama.health-check-interval:10000}")
+    public void checkHealth() {
+        // Never waits for Ollama: the scheduler thread is shared with the availability refresh and the
+        // event stream heartbeat. A probe still running when the next one is due is left to finish.
+        if (!probeInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        ollamaService.isAvailable()
+                .timeout(Duration.ofSeconds(10), Mono.just(false))
+                .onErrorReturn(false)
+                .defaultIfEmpty(false)
+                .doFinally(signal -> probeInFlight.set(false))
+                .subscribe(this::probed);
+    }
+
+    private void probed(boolean reachable) {
+        if (reachable) {
+            circuitBreaker.probeSucceeded();
+        } else {
+            circuitBreaker.trip();
+        }
+        if (reachable != available) {
+            log.info("Ollama is now {}", reachable ? "available" : "unavailable");
+        }
+        available = reachable;
+        lastChecked = LocalDateTime.now();
+    }
+
+    // Reachable at the last probe and not refused by the circuit breaker
+    public boolean isAvailable() {
+        return available && circuitBreaker.getState() != OllamaCircuitBreaker.State.OPEN;
+    }
+
+    public LocalDateTime getLastChecked() {
+        return lastChecked;
+    }
+}
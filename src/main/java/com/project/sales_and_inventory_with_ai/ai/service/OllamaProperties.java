@@ -0,0 +1,66 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Ollama servers and models; without ollama.endpoints a single server at ollama.base-url serves every model
+@Data
+@ConfigurationProperties(prefix = "ollama")
+public class OllamaProperties {
+
+    private String baseUrl = "http://localhost:11434";
+    private String model = "llama3.2";
+    // Seconds to wait for a response (or, when streaming, for each fragment)
+    private int timeout = 60;
+    private String keepAlive = "30m";
+    // When set, a request still unanswered after this long is also sent to a second endpoint
+    private Duration hedgeDelay;
+    private List<Endpoint> endpoints = new ArrayList<>();
+    // Model per role, e.g. ollama.routes.classify=llama3.2:1b; roles without a route use ollama.model
+    private Map<String, String> routes = new HashMap<>();
+    private Http http = new Http();
+
+    @Data
+    public static class Endpoint {
+        private String name;
+        private String baseUrl;
+        // Models pulled on this server; empty means it serves any model
+        private List<String> models = new ArrayList<>();
+        private int maxConcurrent = 2;
+    }
+
+    // Connection pool and limits of the HTTP client shared by all endpoints
+    @Data
+    public static class Http {
+        private int maxConnections = 16;
+        private int maxPendingAcquires = 64;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(90);
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+        private DataSize maxResponseSize = DataSize.ofKilobytes(256);
+        private boolean compress = true;
+    }
+
+    public String modelFor(OllamaRole role) {
+        return routes.getOrDefault(role.name().toLowerCase(Locale.ROOT), model);
+    }
+
+    public List<Endpoint> resolvedEndpoints() {
+        if (!endpoints.isEmpty()) {
+            return endpoints;
+        }
+        Endpoint single = new Endpoint();
+        single.setName("default");
+        single.setBaseUrl(baseUrl);
+        single.setMaxConcurrent(Integer.MAX_VALUE);
+        return List.of(single);
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+// What a generation is for; ollama.routes.<role> picks the model, so a small one can handle classification
+public enum OllamaRole {
+    // Reading a chat message into an action and parameters (the JSON action prompt, streamed or not)
+    CLASSIFY,
+    // Free-form text with no JSON to follow
+    EXPLAIN
+}
@@ -2,77 +2,250 @@ package com.project.sales_and_inventory_with_ai.ai.service;
 
 import com.project.sales_and_inventory_with_ai.ai.dto.OllamaRequest;
 import com.project.sales_and_inventory_with_ai.ai.dto.OllamaResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class OllamaService {
 
-    private final WebClient webClient;
-    private final String model;
-    private final int timeout;
-
-    public OllamaService(
-            @Value("${ollama.base-url}") String baseUrl,
-            @Value("${ollama.model}") String model,
-            @Value("${ollama.timeout}") int timeout) {
-        
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .build();
-        this.model = model;
-        this.timeout = timeout;
-    }
-
-    public String chat(String prompt) {
-        log.debug("Sending request to Ollama with model: {}", model);
-        
-        OllamaRequest request = new OllamaRequest();
-        request.setModel(model);
-        request.setPrompt(prompt);
-        request.setStream(false);
-        request.setOptions(new OllamaRequest.OllamaOptions(0.7, 500));
+    private final OllamaEndpointPool endpointPool;
+    private final OllamaProperties properties;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    public Mono<String> chat(OllamaRole role, String system, String prompt) {
+        return generate(role, system, prompt)
+                .filter(response -> response.getResponse() != null)
+                .map(response -> response.getResponse().trim())
+                .switchIfEmpty(Mono.error(new RuntimeException("No response from Ollama")));
+    }
+
+    // Full response including Ollama's timings (prompt evaluation, generation)
+    public Mono<OllamaResponse> generate(OllamaRole role, String system, String prompt) {
+        String model = properties.modelFor(role);
+        log.debug("Sending {} request to Ollama with model: {}", role, model);
+
+        OllamaRequest request = newRequest(model, system, prompt, false);
+
+        // Non-blocking: no request thread waits while the model generates
+        return timed(role, model, guarded(hedged(model, request)
+                .doOnNext(response -> recordTimings(model, response))
+                .onErrorMap(e -> !(e instanceof AiBusyException), e -> {
+                    log.error("Error calling Ollama API: {}", e.getMessage());
+                    return new RuntimeException("Failed to communicate with AI: " + e.getMessage());
+                })
+                .flux()))
+                // Not next(): it cancels upstream before completing, which would report the call twice
+                .singleOrEmpty();
+    }
+
+    // Streams the generated text as Ollama produces it (NDJSON, one fragment per line)
+    public Flux<String> chatStream(OllamaRole role, String system, String prompt) {
+        String model = properties.modelFor(role);
+        log.debug("Streaming {} request to Ollama with model: {}", role, model);
 
-        try {
-            OllamaResponse response = webClient.post()
+        OllamaRequest request = newRequest(model, system, prompt, true);
+
+        // Not hedged: fragments from two generations can't be merged into one reply
+        return timed(role, model, guarded(Flux.defer(() -> {
+            OllamaEndpoint endpoint = acquire(model, List.of());
+            return endpoint.getWebClient().post()
                     .uri("/api/generate")
                     .bodyValue(request)
                     .retrieve()
-                    .bodyToMono(OllamaResponse.class)
-                    .timeout(Duration.ofSeconds(timeout))
-                    .block();
+                    .bodyToFlux(OllamaResponse.class)
+                    // Bounds the wait for each fragment, not the whole generation
+                    .timeout(Duration.ofSeconds(properties.getTimeout()))
+                    .takeUntil(OllamaResponse::isDone)
+                    .doFinally(signal -> endpointPool.release(endpoint));
+        })
+                .doOnNext(response -> {
+                    if (response.isDone()) {
+                        recordTimings(model, response);
+                    }
+                })
+                .map(response -> response.getResponse() != null ? response.getResponse() : "")
+                .filter(fragment -> !fragment.isEmpty())
+                .onErrorMap(e -> !(e instanceof AiBusyException), e -> {
+                    log.error("Error streaming from Ollama API: {}", e.getMessage());
+                    return new RuntimeException("Failed to communicate with AI: " + e.getMessage());
+                })));
+    }
+
+    // Used by OllamaHealthMonitor; available while at least one endpoint answers
+    public Mono<Boolean> isAvailable() {
+        return Flux.fromIterable(endpointPool.getEndpoints())
+                .flatMap(endpoint -> endpoint.getWebClient().get()
+                        .uri("/")
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .timeout(Duration.ofSeconds(5))
+                        .map(body -> true)
+                        .defaultIfEmpty(true)
+                        .onErrorResume(e -> {
+                            log.warn("Ollama endpoint {} is not available: {}", endpoint.getName(), e.getMessage());
+                            return Mono.just(false);
+                        }))
+                .reduce(false, (any, reachable) -> any || reachable);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("endpoints", endpointPool.getStats());
+        stats.put("hedgesSent", hedgesSent.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        return stats;
+    }
 
-            if (response != null && response.getResponse() != null) {
-                log.debug("Received response from Ollama");
-                return response.getResponse().trim();
+    // Sends to the least busy endpoint; if it hasn't answered within the hedge delay, also to the next one
+    // and keeps whichever answers first (the other request is cancelled)
+    private Mono<OllamaResponse> hedged(String model, OllamaRequest request) {
+        return Mono.defer(() -> {
+            OllamaEndpoint primary = acquire(model, List.of());
+            Mono<OllamaResponse> first = send(primary, request);
+
+            Duration hedgeDelay = properties.getHedgeDelay();
+            if (hedgeDelay == null || hedgeDelay.isZero()) {
+                return first;
             }
-            
-            throw new RuntimeException("No response from Ollama");
-            
-        } catch (Exception e) {
-            log.error("Error calling Ollama API: {}", e.getMessage());
-            throw new RuntimeException("Failed to communicate with AI: " + e.getMessage());
+            Mono<OllamaResponse> hedge = Mono.delay(hedgeDelay)
+                    .flatMap(tick -> Mono.justOrEmpty(endpointPool.acquire(model, List.of(primary))))
+                    .flatMap(endpoint -> {
+                        log.debug("No answer from {} after {} ms, hedging on {}", primary.getName(), hedgeDelay.toMillis(), endpoint.getName());
+                        hedgesSent.incrementAndGet();
+                        return send(endpoint, request).doOnNext(response -> hedgesWon.incrementAndGet());
+                    });
+            return Mono.firstWithValue(first, hedge)
+                    // Both failed (or the hedge had nowhere to go): report the primary's error
+                    .onErrorMap(NoSuchElementException.class, e -> e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+        });
+    }
+
+    private Mono<OllamaResponse> send(OllamaEndpoint endpoint, OllamaRequest request) {
+        return endpoint.getWebClient().post()
+                .uri("/api/generate")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(OllamaResponse.class)
+                .timeout(Duration.ofSeconds(properties.getTimeout()))
+                .doFinally(signal -> endpointPool.release(endpoint));
+    }
+
+    private OllamaEndpoint acquire(String model, List<OllamaEndpoint> excluded) {
+        if (!endpointPool.hasEndpointFor(model)) {
+            throw new RuntimeException("No Ollama endpoint is configured for model " + model);
         }
+        return endpointPool.acquire(model, excluded)
+                .orElseThrow(() -> new AiBusyException("All Ollama endpoints for " + model + " are at capacity"));
     }
 
-    public boolean isAvailable() {
-        try {
-            webClient.get()
-                    .uri("/")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .block();
-            return true;
-        } catch (Exception e) {
-            log.warn("Ollama is not available: {}", e.getMessage());
-            return false;
+    // Refuses calls while the circuit breaker is open and reports each call's outcome back to it
+    private <T> Flux<T> guarded(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.allowRequest()) {
+                return Flux.error(new AiUnavailableException("Ollama circuit breaker is open"));
+            }
+            return call
+                    .doOnComplete(circuitBreaker::recordSuccess)
+                    .doOnError(e -> {
+                        // A full pool says nothing about Ollama's health
+                        if (e instanceof AiBusyException) {
+                            circuitBreaker.recordCancelled();
+                        } else {
+                            circuitBreaker.recordFailure();
+                        }
+                    })
+                    .doOnCancel(circuitBreaker::recordCancelled);
+        });
+    }
+
+    // Whole call as the caller sees it, from the endpoint pool to the last fragment
+    private <T> Flux<T> timed(OllamaRole role, String model, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnComplete(() -> stopRequestTimer(sample, role, model, "success"))
+                    .doOnError(e -> stopRequestTimer(sample, role, model, outcomeOf(e)))
+                    .doOnCancel(() -> stopRequestTimer(sample, role, model, "cancelled"));
+        });
+    }
+
+    private void stopRequestTimer(Timer.Sample sample, OllamaRole role, String model, String outcome) {
+        sample.stop(Timer.builder("ollama.request")
+                .description("Time of one Ollama call, excluding the wait in the request limiter")
+                .tag("role", role.name().toLowerCase())
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof AiBusyException) {
+            return "busy";
+        }
+        return e instanceof AiUnavailableException ? "unavailable" : "error";
+    }
+
+    // Ollama reports where the time went: loading the model, reading the prompt, generating the answer.
+    // Prompt eval count/time drop sharply once the system prefix is served from the model's cached context.
+    private void recordTimings(String model, OllamaResponse response) {
+        if (response.getPromptEvalCount() != null) {
+            log.debug("Ollama prompt eval: {} tokens in {} ms, generation: {} tokens in {} ms",
+                    response.getPromptEvalCount(), nanosToMillis(response.getPromptEvalDuration()),
+                    response.getEvalCount(), nanosToMillis(response.getEvalDuration()));
+        }
+        recordDuration("ollama.model.load", model, response.getLoadDuration());
+        recordDuration("ollama.prompt.eval", model, response.getPromptEvalDuration());
+        recordDuration("ollama.generation", model, response.getEvalDuration());
+        recordTokens("ollama.prompt.tokens", model, response.getPromptEvalCount());
+        recordTokens("ollama.generation.tokens", model, response.getEvalCount());
+    }
+
+    private void recordDuration(String name, String model, Long nanos) {
+        if (nanos != null) {
+            Timer.builder(name).tag("model", model).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordTokens(String name, String model, Integer tokens) {
+        if (tokens != null) {
+            DistributionSummary.builder(name).baseUnit("tokens").tag("model", model).register(meterRegistry).record(tokens);
         }
     }
+
+    private static long nanosToMillis(Long nanos) {
+        return nanos != null ? nanos / 1_000_000 : 0;
+    }
+
+    private OllamaRequest newRequest(String model, String system, String prompt, boolean stream) {
+        OllamaRequest request = new OllamaRequest();
+        request.setModel(model);
+        request.setSystem(system);
+        request.setPrompt(prompt);
+        request.setStream(stream);
+        // Keeps the model loaded between chats so the system prefix isn't evaluated again
+        request.setKeepAlive(properties.getKeepAlive());
+        request.setOptions(new OllamaRequest.OllamaOptions(0.7, 500));
+        return request;
+    }
 }
@@ -0,0 +1,111 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+// Pulls one top-level string field out of a JSON object while the JSON is still arriving.
+// Each chunk returns only the newly decoded characters of that field, so they can be forwarded right away.
+// Not thread-safe: use one instance per response.
+public class StreamingFieldExtractor {
+
+    private final String fieldName;
+    private final StringBuilder key = new StringBuilder();
+
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private StringBuilder unicode;
+    private boolean expectKey;
+    private boolean readingKey;
+    private String lastKey;
+    private boolean expectValue;
+    private boolean streamingValue;
+
+    public StreamingFieldExtractor(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String feed(String chunk) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i), out);
+        }
+        return out.toString();
+    }
+
+    private void accept(char c, StringBuilder out) {
+        if (inString) {
+            acceptInString(c, out);
+            return;
+        }
+        
+        switch (c) {
+            case '{' -> {
+                depth++;
+                expectKey = depth == 1;
+            }
+            case '[' -> depth++;
+            case '}', ']' -> depth--;
+            case ',' -> expectKey = depth == 1;
+            case ':' -> {
+                if (depth == 1) {
+                    expectKey = false;
+                    expectValue = fieldName.equals(lastKey);
+                }
+            }
+            case '"' -> {
+                inString = true;
+                if (depth == 1 && expectKey) {
+                    readingKey = true;
+                    key.setLength(0);
+                } else if (depth == 1 && expectValue) {
+                    streamingValue = true;
+                    expectValue = false;
+                }
+            }
+            default -> {
+                // Any other value (null, number, object) for the field means there is nothing to stream
+                if (depth == 1 && expectValue && !Character.isWhitespace(c)) {
+                    expectValue = false;
+                }
+            }
+        }
+    }
+
+    private void acceptInString(char c, StringBuilder out) {
+        if (unicode != null) {
+            unicode.append(c);
+            if (unicode.length() == 4) {
+                append((char) Integer.parseInt(unicode.toString(), 16), out);
+                unicode = null;
+            }
+        } else if (escaped) {
+            escaped = false;
+            switch (c) {
+                case 'u' -> unicode = new StringBuilder(4);
+                case 'n' -> append('\n', out);
+                case 't' -> append('\t', out);
+                case 'r' -> append('\r', out);
+                case 'b' -> append('\b', out);
+                case 'f' -> append('\f', out);
+                default -> append(c, out);
+            }
+        } else if (c == '\\') {
+            escaped = true;
+        } else if (c == '"') {
+            inString = false;
+            if (readingKey) {
+                readingKey = false;
+                lastKey = key.toString();
+            }
+            streamingValue = false;
+        } else {
+            append(c, out);
+        }
+    }
+
+    private void append(char c, StringBuilder out) {
+        if (readingKey) {
+            key.append(c);
+        } else if (streamingValue) {
+            out.append(c);
+        }
+    }
+}
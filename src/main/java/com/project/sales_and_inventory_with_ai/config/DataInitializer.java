@@ -4,12 +4,14 @@ import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
 import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
 import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
 import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -17,7 +19,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
+// Replaced by SyntheticDataGenerator when the synthetic profile is active
 @Component
+@Profile("!synthetic")
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -25,6 +29,7 @@ public class DataInitializer implements CommandLineRunner {
     private final MaterialRepository materialRepository;
     private final FoodItemRepository foodItemRepository;
     private final SaleRepository saleRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
 
     @Override
     public void run(String... args) {
@@ -35,6 +40,12 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             log.info("Database already contains data. Skipping initialization.");
         }
+        
+        // Sales recorded before the rollup existed (or seeded above) need a one-time rebuild
+        if (dailySalesRollupRepository.count() == 0 && saleRepository.count() > 0) {
+            log.info("Building daily sales rollup...");
+            dailySalesRollupRepository.rebuild();
+        }
     }
 
     private void initializeSampleData() {
@@ -0,0 +1,59 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate second-level cache for reference data (materials and recipes), backed by Caffeine through JCache.
+// Every region is declared here with a size bound; Hibernate is not allowed to create unbounded ones on demand.
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String MATERIALS = "materials";
+    public static final String FOOD_ITEMS = "food_items";
+    public static final String INGREDIENTS = "ingredients";
+    public static final String RECIPE_INGREDIENTS = "food_items.ingredients";
+    public static final String RECIPE_QUERIES = "food_items.recipe_queries";
+
+    public static final List<String> REGIONS = List.of(MATERIALS, FOOD_ITEMS, INGREDIENTS, RECIPE_INGREDIENTS, RECIPE_QUERIES);
+
+    // A provider of its own per application context, so contexts never share cached rows
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${inventory.l2-cache.max-entries:10000}") long maxEntries,
+            @Value("${inventory.l2-cache.ttl-minutes:60}") long ttlMinutes) {
+
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+        bounded.setMaximumSize(OptionalLong.of(maxEntries));
+        bounded.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        for (String region : REGIONS) {
+            cacheManager.createCache(region, bounded);
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded);
+
+        // Query results are checked against these timestamps; losing one could serve a stale result
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
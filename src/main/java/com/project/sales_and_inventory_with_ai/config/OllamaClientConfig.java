@@ -0,0 +1,55 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import com.project.sales_and_inventory_with_ai.ai.service.OllamaProperties;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.JacksonJsonDecoder;
+import org.springframework.http.codec.json.JacksonJsonEncoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+// HTTP client for LLM traffic only, so its pool size and timeouts don't leak into other WebClient users.
+// Each Ollama endpoint derives its client from this one with mutate(), sharing connections and codecs.
+@Configuration
+public class OllamaClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider ollamaConnectionProvider(OllamaProperties properties) {
+        OllamaProperties.Http http = properties.getHttp();
+        return ConnectionProvider.builder("ollama")
+                .maxConnections(http.getMaxConnections())
+                // Callers beyond this wait-list fail immediately rather than piling up
+                .pendingAcquireMaxCount(http.getMaxPendingAcquires())
+                .pendingAcquireTimeout(http.getConnectTimeout())
+                // Keep warm connections between chats, but drop them before Ollama's side would
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public WebClient ollamaWebClient(ConnectionProvider ollamaConnectionProvider, OllamaProperties properties, JsonMapper jsonMapper) {
+        OllamaProperties.Http http = properties.getHttp();
+        HttpClient httpClient = HttpClient.create(ollamaConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .keepAlive(true)
+                .compress(http.isCompress());
+        
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> {
+                    // Caps a buffered response (or one NDJSON line when streaming)
+                    codecs.defaultCodecs().maxInMemorySize((int) http.getMaxResponseSize().toBytes());
+                    codecs.defaultCodecs().jacksonJsonDecoder(new JacksonJsonDecoder(jsonMapper));
+                    codecs.defaultCodecs().jacksonJsonEncoder(new JacksonJsonEncoder(jsonMapper));
+                })
+                .build();
+    }
+}
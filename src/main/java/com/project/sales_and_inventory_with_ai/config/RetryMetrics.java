@@ -0,0 +1,27 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.resilience.retry.MethodRetryEvent;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+// Counts failed attempts of @Retryable methods (stock contention on sales), split into retried and given up
+@Component
+@RequiredArgsConstructor
+public class RetryMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onRetry(MethodRetryEvent event) {
+        Method method = event.getMethod();
+        meterRegistry.counter("method.retries",
+                        "method", method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                        "exception", event.getFailure().getClass().getSimpleName(),
+                        "outcome", event.isRetryAborted() ? "aborted" : "retried")
+                .increment();
+    }
+}
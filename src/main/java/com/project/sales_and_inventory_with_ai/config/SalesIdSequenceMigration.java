@@ -0,0 +1,81 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+
+// Moves a schema created while sales.id was an IDENTITY column onto the pooled sales_seq the Sale entity
+// now uses. ddl-auto=update neither drops the identity nor starts the new sequence past the existing ids,
+// so without this the first insert either collides with an old row or is rejected by GENERATED ALWAYS.
+// Runs once the schema is up to date (it needs the EntityManagerFactory) and before any CommandLineRunner.
+@Component
+@Slf4j
+public class SalesIdSequenceMigration {
+
+    // Must match the allocationSize on Sale.id
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesIdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        migrate();
+    }
+
+    void migrate() {
+        if (isIdentity()) {
+            log.info("Dropping the identity from sales.id; ids now come from sales_seq");
+            jdbcTemplate.execute(isOracle()
+                    ? "ALTER TABLE sales MODIFY id DROP IDENTITY"
+                    : "ALTER TABLE sales ALTER COLUMN id DROP IDENTITY");
+        }
+
+        // Nothing to collide with yet; leave the sequence untouched so the first ids still start at 1
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM sales", Long.class);
+        if (maxId == 0) {
+            return;
+        }
+
+        // The pooled optimizer hands out next - 49 .. next, so the whole block has to sit above the last id
+        Long next = nextValue();
+        if (next != null && next >= maxId + ALLOCATION_SIZE) {
+            return;
+        }
+
+        long start = maxId + ALLOCATION_SIZE;
+        log.info("Restarting sales_seq at {} to clear the existing sale ids", start);
+        if (next != null) {
+            jdbcTemplate.execute("DROP SEQUENCE sales_seq");
+        }
+        jdbcTemplate.execute("CREATE SEQUENCE sales_seq START WITH " + start + " INCREMENT BY " + ALLOCATION_SIZE);
+    }
+
+    private boolean isIdentity() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            String table = connection.getMetaData().storesLowerCaseIdentifiers() ? "sales" : "SALES";
+            String column = connection.getMetaData().storesLowerCaseIdentifiers() ? "id" : "ID";
+            try (ResultSet columns = connection.getMetaData().getColumns(null, connection.getSchema(), table, column)) {
+                return columns.next() && "YES".equals(columns.getString("IS_AUTOINCREMENT"));
+            }
+        }));
+    }
+
+    private boolean isOracle() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().contains("Oracle")));
+    }
+
+    // Null when the sequence doesn't exist yet (ddl-auto off); reading it costs one block of unused ids
+    private Long nextValue() {
+        try {
+            return jdbcTemplate.queryForObject("SELECT sales_seq.NEXTVAL FROM dual", Long.class);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
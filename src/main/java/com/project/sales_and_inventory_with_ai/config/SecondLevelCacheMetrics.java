@@ -0,0 +1,33 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+// Hit ratio of each second-level cache region. Raw hit/miss/put counts per region are published
+// by Spring Boot as hibernate.second.level.cache.* from the same statistics.
+@Component
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : HibernateCacheConfig.REGIONS) {
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                    .description("Share of second-level cache lookups served from the cache since startup")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return 0.0;
+        }
+        long total = region.getHitCount() + region.getMissCount();
+        return total == 0 ? 0.0 : (double) region.getHitCount() / total;
+    }
+}
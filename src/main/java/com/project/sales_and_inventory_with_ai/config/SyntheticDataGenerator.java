@@ -0,0 +1,338 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Loads a large, reproducible dataset for load and performance tests in place of the sample data.
+// Everything is drawn from one seeded Random, so the same settings always produce the same rows.
+// Rows go in through plain JDBC batches; JPA would spend most of the time on entity bookkeeping.
+@Component
+@Profile("synthetic")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[][] MATERIALS = {
+            {"Flour", "kg"}, {"Sugar", "kg"}, {"Eggs", "pieces"}, {"Milk", "liters"}, {"Butter", "kg"},
+            {"Rice", "kg"}, {"Chicken", "kg"}, {"Pork", "kg"}, {"Beef", "kg"}, {"Garlic", "kg"},
+            {"Onion", "kg"}, {"Soy Sauce", "liters"}, {"Vinegar", "liters"}, {"Cooking Oil", "liters"},
+            {"Tomato Sauce", "kg"}, {"Cheese", "kg"}, {"Coffee Beans", "kg"}, {"Chocolate", "kg"},
+            {"Vanilla Extract", "ml"}, {"Calamansi", "pieces"}, {"Longganisa", "pieces"}, {"Tocino", "kg"},
+            {"Noodles", "kg"}, {"Ube", "kg"}, {"Coconut Milk", "liters"}, {"Banana", "pieces"},
+            {"Bread Rolls", "pieces"}, {"Tea Leaves", "kg"}, {"Ice", "kg"}, {"Cups", "pieces"}};
+
+    private static final String[] FOOD_ITEMS = {
+            "Tapsilog", "Longsilog", "Tocilog", "Chicken Adobo", "Pork Sinigang", "Pancit Canton", "Sisig",
+            "Lumpia", "Kare-Kare", "Bulalo", "Tinola", "Arroz Caldo", "Champorado", "Halo-Halo", "Leche Flan",
+            "Turon", "Bibingka", "Puto", "Ensaymada", "Ube Cake", "Chocolate Cake", "Cheese Pizza",
+            "Burger", "Cappuccino", "Iced Tea", "Chicken Inasal", "Lechon Kawali", "Pandesal", "Buko Pie"};
+
+    // Relative sales per hour of day (index = hour) for a small eatery: breakfast, lunch, merienda, dinner
+    private static final double[] HOUR_WEIGHTS = {
+            0, 0, 0, 0, 0, 0.1, 0.3, 0.8, 1.0, 0.6, 0.5, 1.4,
+            1.8, 1.2, 0.5, 0.8, 0.9, 0.9, 1.4, 1.5, 1.0, 0.5, 0.2, 0};
+
+    // Relative sales per month (index = month - 1): holiday rush in December, slow January, summer bump
+    private static final double[] MONTH_WEIGHTS = {
+            0.85, 0.9, 1.0, 1.1, 1.1, 0.95, 0.9, 0.9, 1.0, 1.05, 1.1, 1.4};
+
+    private static final String INSERT_MATERIAL =
+            "INSERT INTO materials (name, unit, price_per_unit, quantity, date_purchased) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PURCHASE =
+            "INSERT INTO stock_movements (id, material_id, quantity_change, movement_type, created_at) " +
+            "VALUES (stock_movements_seq.NEXTVAL, ?, ?, 'PURCHASE', ?)";
+    private static final String INSERT_FOOD_ITEM =
+            "INSERT INTO food_items (name, price_per_serving) VALUES (?, ?)";
+    private static final String INSERT_INGREDIENT =
+            "INSERT INTO ingredients (food_item_id, material_id, quantity_required) VALUES (?, ?, ?)";
+    // Each row takes a whole sequence value; the gaps are harmless and keep Hibernate's pooled ids clear of ours
+    private static final String INSERT_SALE =
+            "INSERT INTO sales (id, food_item_id, quantity_sold, sale_price, sale_date, profit, cost_of_ingredients) " +
+            "VALUES (sales_seq.NEXTVAL, ?, ?, ?, ?, ?, ?)";
+
+    private final SyntheticDataProperties properties;
+    private final MaterialRepository materialRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(String... args) {
+        if (materialRepository.count() > 0) {
+            log.info("Database already contains data. Skipping synthetic data generation.");
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        LocalDate endDate = properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now();
+
+        List<MaterialRow> materials = insertMaterials(random, endDate);
+        List<RecipeRow> recipes = insertRecipes(random, materials);
+        long sales = insertSales(random, recipes, endDate);
+
+        log.info("Building daily sales rollup...");
+        dailySalesRollupRepository.rebuild();
+        // Rows were written around Hibernate; nothing cached before the load may survive it
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+
+        log.info("Synthetic data loaded: {} materials, {} food items, {} sales in {} s (seed {})",
+                materials.size(), recipes.size(), sales, (System.nanoTime() - start) / 1_000_000_000, properties.getSeed());
+    }
+
+    private List<MaterialRow> insertMaterials(Random random, LocalDate endDate) {
+        List<Object[]> rows = new ArrayList<>();
+        List<MaterialRow> materials = new ArrayList<>();
+        for (int i = 0; i < properties.getMaterials(); i++) {
+            String[] base = MATERIALS[i % MATERIALS.length];
+            String name = i < MATERIALS.length ? base[0] : base[0] + " " + (i / MATERIALS.length + 1);
+            BigDecimal price = unitPrice(random, base[1]);
+            // A spread of stock levels, some of them low enough to show up in the stock report
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            LocalDate purchased = endDate.minusDays(random.nextInt(30));
+            rows.add(new Object[]{name, base[1], price, quantity, purchased});
+            materials.add(new MaterialRow(null, base[1], price, quantity, purchased));
+        }
+        jdbcTemplate.batchUpdate(INSERT_MATERIAL, rows);
+
+        // Identity ids come back in insert order since the table started empty
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM materials ORDER BY id", Long.class);
+        List<Object[]> purchases = new ArrayList<>();
+        for (int i = 0; i < materials.size(); i++) {
+            MaterialRow material = materials.get(i);
+            material.id = ids.get(i);
+            if (material.quantity.signum() > 0) {
+                purchases.add(new Object[]{material.id, material.quantity, Timestamp.valueOf(material.purchased.atStartOfDay())});
+            }
+        }
+        // Keeps the stock ledger in line with the opening quantities
+        jdbcTemplate.batchUpdate(INSERT_PURCHASE, purchases);
+        log.info("Created {} materials", materials.size());
+        return materials;
+    }
+
+    private List<RecipeRow> insertRecipes(Random random, List<MaterialRow> materials) {
+        // Staples (the first materials) go into far more recipes than specialty items
+        double[] materialWeights = cumulative(materials.size(), 0.8);
+        int minIngredients = Math.min(properties.getMinIngredients(), materials.size());
+        int maxIngredients = Math.min(Math.max(properties.getMaxIngredients(), minIngredients), materials.size());
+
+        List<RecipeRow> recipes = new ArrayList<>();
+        List<Object[]> foodItemRows = new ArrayList<>();
+        for (int i = 0; i < properties.getFoodItems(); i++) {
+            // Triangular: most recipes have a middling number of ingredients, few have the extremes
+            int span = maxIngredients - minIngredients + 1;
+            int count = minIngredients + (int) ((random.nextDouble() + random.nextDouble()) / 2 * span);
+
+            Set<Integer> picked = new LinkedHashSet<>();
+            while (picked.size() < count) {
+                picked.add(pick(random, materialWeights));
+            }
+            RecipeRow recipe = new RecipeRow();
+            BigDecimal cost = BigDecimal.ZERO;
+            for (int index : picked) {
+                MaterialRow material = materials.get(index);
+                BigDecimal required = quantityRequired(random, material.unit);
+                recipe.ingredients.add(new Object[]{material.id, required});
+                cost = cost.add(required.multiply(material.price));
+            }
+            recipe.costPerServing = cost;
+            // Marked up 80-220% over ingredient cost, rounded to whole pesos
+            recipe.price = cost.multiply(BigDecimal.valueOf(1.8 + random.nextDouble() * 1.4))
+                    .setScale(0, RoundingMode.HALF_UP).max(BigDecimal.TEN).setScale(2, RoundingMode.UNNECESSARY);
+
+            String base = FOOD_ITEMS[i % FOOD_ITEMS.length];
+            String name = i < FOOD_ITEMS.length ? base : base + " Special " + (i / FOOD_ITEMS.length);
+            foodItemRows.add(new Object[]{name, recipe.price});
+            recipes.add(recipe);
+        }
+        jdbcTemplate.batchUpdate(INSERT_FOOD_ITEM, foodItemRows);
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM food_items ORDER BY id", Long.class);
+        List<Object[]> ingredientRows = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            RecipeRow recipe = recipes.get(i);
+            recipe.id = ids.get(i);
+            for (Object[] ingredient : recipe.ingredients) {
+                ingredientRows.add(new Object[]{recipe.id, ingredient[0], ingredient[1]});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_INGREDIENT, ingredientRows);
+        log.info("Created {} food items with {} ingredients", recipes.size(), ingredientRows.size());
+        return recipes;
+    }
+
+    private long insertSales(Random random, List<RecipeRow> recipes, LocalDate endDate) {
+        int days = Math.max(properties.getDays(), 1);
+        LocalDate startDate = endDate.minusDays(days - 1L);
+        LocalDateTime now = LocalDateTime.now();
+
+        // A few best sellers and a long tail
+        double[] recipeWeights = cumulative(recipes.size(), 1.07);
+        double[] hourWeights = cumulative(HOUR_WEIGHTS);
+
+        double[] dayWeights = new double[days];
+        double totalWeight = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            // Busier weekends, seasonal swings and a business that grows by about 15% over the range
+            dayWeights[d] = weekdayWeight(date.getDayOfWeek())
+                    * MONTH_WEIGHTS[date.getMonthValue() - 1]
+                    * (1 + 0.15 * d / days);
+            totalWeight += dayWeights[d];
+        }
+
+        List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+        long inserted = 0;
+        double expected = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate date = startDate.plusDays(d);
+            // Each day gets its share of the total, rounded so the days add up to exactly the requested count
+            long before = Math.round(expected);
+            expected += properties.getSales() * dayWeights[d] / totalWeight;
+            long count = Math.round(expected) - before;
+
+            boolean today = date.equals(now.toLocalDate());
+            for (long s = 0; s < count; s++) {
+                RecipeRow recipe = recipes.get(pick(random, recipeWeights));
+                LocalDateTime saleDate = today
+                        ? date.atStartOfDay().plusSeconds(random.nextInt(Math.max(now.toLocalTime().toSecondOfDay(), 1)))
+                        : date.atTime(LocalTime.of(pick(random, hourWeights), random.nextInt(60), random.nextInt(60)));
+
+                // Mostly single servings, sometimes a few for a group
+                int quantity = 1;
+                while (quantity < 6 && random.nextDouble() < 0.35) {
+                    quantity++;
+                }
+                BigDecimal quantitySold = BigDecimal.valueOf(quantity);
+                BigDecimal cost = recipe.costPerServing.multiply(quantitySold).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal profit = recipe.price.multiply(quantitySold).subtract(cost);
+
+                batch.add(new Object[]{recipe.id, quantitySold, recipe.price, Timestamp.valueOf(saleDate), profit, cost});
+                if (batch.size() == properties.getBatchSize()) {
+                    inserted += flushSales(batch);
+                }
+            }
+        }
+        return inserted + flushSales(batch);
+    }
+
+    private int flushSales(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SALE, batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private static double weekdayWeight(DayOfWeek day) {
+        return switch (day) {
+            case FRIDAY -> 1.15;
+            case SATURDAY -> 1.35;
+            case SUNDAY -> 1.25;
+            default -> 0.9;
+        };
+    }
+
+    private static BigDecimal unitPrice(Random random, String unit) {
+        double price = switch (unit) {
+            case "kg" -> 40 + random.nextDouble() * 760;
+            case "liters" -> 50 + random.nextDouble() * 250;
+            case "ml" -> 0.5 + random.nextDouble() * 4.5;
+            default -> 3 + random.nextDouble() * 22;
+        };
+        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal quantityRequired(Random random, String unit) {
+        return switch (unit) {
+            case "pieces" -> BigDecimal.valueOf(1 + random.nextInt(4));
+            case "ml" -> BigDecimal.valueOf(1 + random.nextInt(30));
+            default -> BigDecimal.valueOf(2 + random.nextInt(49), 2);
+        };
+    }
+
+    // Zipf-like popularity by rank: weight of the i-th entry is 1 / (i + 1)^exponent
+    private static double[] cumulative(int size, double exponent) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    // Index drawn with probability proportional to its weight: the first entry whose running total exceeds the target
+    private static int pick(Random random, double[] cumulative) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > target) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static class MaterialRow {
+        private Long id;
+        private final String unit;
+        private final BigDecimal price;
+        private final BigDecimal quantity;
+        private final LocalDate purchased;
+
+        MaterialRow(Long id, String unit, BigDecimal price, BigDecimal quantity, LocalDate purchased) {
+            this.id = id;
+            this.unit = unit;
+            this.price = price;
+            this.quantity = quantity;
+            this.purchased = purchased;
+        }
+    }
+
+    private static class RecipeRow {
+        private Long id;
+        private BigDecimal price;
+        private BigDecimal costPerServing;
+        private final List<Object[]> ingredients = new ArrayList<>();
+    }
+}
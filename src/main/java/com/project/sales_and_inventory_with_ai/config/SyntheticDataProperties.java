@@ -0,0 +1,33 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+// Size and shape of the dataset loaded under the "synthetic" profile
+@Data
+@ConfigurationProperties(prefix = "synthetic")
+public class SyntheticDataProperties {
+
+    // Same seed, same dataset
+    private long seed = 42;
+
+    private int materials = 200;
+
+    private int foodItems = 500;
+
+    private int minIngredients = 2;
+
+    private int maxIngredients = 12;
+
+    private long sales = 1_000_000;
+
+    // Sales are spread over this many days, ending on endDate
+    private int days = 365;
+
+    // Defaults to today; pin it to get the same dates on every load
+    private LocalDate endDate;
+
+    private int batchSize = 5_000;
+}
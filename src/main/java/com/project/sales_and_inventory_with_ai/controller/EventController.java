@@ -0,0 +1,36 @@
+package com.project.sales_and_inventory_with_ai.controller;
+
+import com.project.sales_and_inventory_with_ai.service.LiveEvent;
+import com.project.sales_and_inventory_with_ai.service.LiveEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final LiveEventBroadcaster broadcaster;
+
+    // Server-sent events "sale", "sales-batch", "stock" and "low-stock". Browsers resend the last id as
+    // Last-Event-ID when they reconnect; other clients can pass it as ?lastEventId=
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> events(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        return broadcaster.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId)
+                .map(EventController::toServerSentEvent)
+                // Commit the response right away instead of with the first event
+                .startWith(ServerSentEvent.<String>builder().comment("connected").build());
+    }
+
+    private static ServerSentEvent<String> toServerSentEvent(LiveEvent event) {
+        if (event.isHeartbeat()) {
+            return ServerSentEvent.<String>builder().comment("ping").build();
+        }
+        return ServerSentEvent.builder(event.data()).id(event.id()).event(event.type()).build();
+    }
+}
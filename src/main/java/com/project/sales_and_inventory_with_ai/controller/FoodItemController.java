@@ -1,6 +1,7 @@
 package com.project.sales_and_inventory_with_ai.controller;
 
 import com.project.sales_and_inventory_with_ai.dto.DTOMapper;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemAvailabilityDTO;
 import com.project.sales_and_inventory_with_ai.dto.FoodItemDTO;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.service.FoodItemService;
@@ -11,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/food-items")
@@ -23,21 +23,22 @@ public class FoodItemController {
 
     @GetMapping
     public ResponseEntity<List<FoodItemDTO>> getAllFoodItems(@RequestParam(required = false) String search) {
-        List<FoodItem> foodItems;
+        List<FoodItemDTO> foodItemDTOs;
         
         if (search != null && !search.isEmpty()) {
-            foodItems = foodItemService.searchFoodItemsByName(search);
+            foodItemDTOs = foodItemService.searchFoodItemDTOsByName(search);
         } else {
-            foodItems = foodItemService.getAllFoodItems();
+            foodItemDTOs = foodItemService.getAllFoodItemDTOs();
         }
         
-        List<FoodItemDTO> foodItemDTOs = foodItems.stream()
-                .map(dtoMapper::toFoodItemDTO)
-                .collect(Collectors.toList());
-        
         return ResponseEntity.ok(foodItemDTOs);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<List<FoodItemAvailabilityDTO>> getAvailability() {
+        return ResponseEntity.ok(foodItemService.getAvailability());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FoodItemDTO> getFoodItemById(@PathVariable Long id) {
         FoodItem foodItem = foodItemService.getFoodItemById(id);
@@ -1,5 +1,7 @@
 package com.project.sales_and_inventory_with_ai.controller;
 
+import com.project.sales_and_inventory_with_ai.service.RecipeCache;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -11,14 +13,18 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final RecipeCache recipeCache;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
         response.put("service", "Inventory and Sales REST API");
         response.put("timestamp", LocalDateTime.now());
+        response.put("recipeCache", recipeCache.getStats());
         return ResponseEntity.ok(response);
     }
 }
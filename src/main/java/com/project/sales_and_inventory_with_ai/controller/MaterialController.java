@@ -2,6 +2,7 @@ package com.project.sales_and_inventory_with_ai.controller;
 
 import com.project.sales_and_inventory_with_ai.dto.DTOMapper;
 import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.service.MaterialService;
 import jakarta.validation.Valid;
@@ -11,7 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/materials")
@@ -23,21 +23,22 @@ public class MaterialController {
 
     @GetMapping
     public ResponseEntity<List<MaterialDTO>> getAllMaterials(@RequestParam(required = false) String search) {
-        List<Material> materials;
+        List<MaterialDTO> materialDTOs;
         
         if (search != null && !search.isEmpty()) {
-            materials = materialService.searchMaterialsByName(search);
+            materialDTOs = materialService.searchMaterialDTOsByName(search);
         } else {
-            materials = materialService.getAllMaterials();
+            materialDTOs = materialService.getAllMaterialDTOs();
         }
         
-        List<MaterialDTO> materialDTOs = materials.stream()
-                .map(dtoMapper::toMaterialDTO)
-                .collect(Collectors.toList());
-        
         return ResponseEntity.ok(materialDTOs);
     }
 
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<MaterialStockDTO>> getLowStockMaterials() {
+        return ResponseEntity.ok(materialService.getMaterialsBelowReorderPoint());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MaterialDTO> getMaterialById(@PathVariable Long id) {
         Material material = materialService.getMaterialById(id);
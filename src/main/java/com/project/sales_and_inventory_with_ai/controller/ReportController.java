@@ -2,10 +2,12 @@ package com.project.sales_and_inventory_with_ai.controller;
 
 import com.project.sales_and_inventory_with_ai.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +22,6 @@ public class ReportController {
     public ResponseEntity<Map<String, Object>> getProfitReport(
             @RequestParam(defaultValue = "today") String period) {
         
-        BigDecimal totalProfit = reportService.getTotalProfit(period);
         Map<String, Object> summary = reportService.getSalesSummary(period);
         
         return ResponseEntity.ok(summary);
@@ -28,7 +29,7 @@ public class ReportController {
 
     @GetMapping("/materials")
     public ResponseEntity<Map<String, Object>> getMaterialsReport(
-            @RequestParam(required = false, defaultValue = "10") BigDecimal lowStockThreshold) {
+            @RequestParam(required = false) BigDecimal lowStockThreshold) {
         
         Map<String, Object> report = reportService.getMaterialsStockReport(lowStockThreshold);
         return ResponseEntity.ok(report);
@@ -42,4 +43,17 @@ public class ReportController {
         List<Map<String, Object>> topItems = reportService.getTopSellingItems(period, limit);
         return ResponseEntity.ok(topItems);
     }
+
+    // Sales per hour, day or week (weeks start on Monday) from 'from' up to, but excluding, 'to' (default now)
+    @GetMapping("/timeseries")
+    public ResponseEntity<Map<String, Object>> getSalesTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(name = "metric", required = false) List<String> metrics,
+            @RequestParam(required = false) Long foodItemId) {
+        
+        Map<String, Object> series = reportService.getSalesTimeSeries(from, to, bucket, metrics, foodItemId);
+        return ResponseEntity.ok(series);
+    }
 }
@@ -1,46 +1,95 @@
 package com.project.sales_and_inventory_with_ai.controller;
 
 import com.project.sales_and_inventory_with_ai.dto.DTOMapper;
+import com.project.sales_and_inventory_with_ai.dto.SaleBatchResultDTO;
 import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
+import com.project.sales_and_inventory_with_ai.service.SaleBatchResult;
+import com.project.sales_and_inventory_with_ai.service.SaleCursor;
 import com.project.sales_and_inventory_with_ai.service.SaleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/sales")
 @RequiredArgsConstructor
 public class SaleController {
 
+    // NDJSON uploads are processed in chunks of this many sales, one transaction per chunk
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    // GET /api/sales is paged newest first; the header carries the "after" cursor of the next page
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final SaleService saleService;
     private final DTOMapper dtoMapper;
+    private final JsonMapper jsonMapper;
 
     @GetMapping
     public ResponseEntity<List<SaleDTO>> getSales(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SaleCursor cursor = after != null ? SaleCursor.decode(after) : null;
         
-        List<Sale> sales;
+        // Fetch one extra row to know whether another page follows
+        List<SaleDTO> saleDTOs = saleService.getSalesPage(startDate, endDate, cursor, limit + 1);
+        boolean hasMore = saleDTOs.size() > limit;
+        if (hasMore) {
+            saleDTOs = saleDTOs.subList(0, limit);
+        }
         
-        if (startDate != null && endDate != null) {
-            sales = saleService.getSalesByDateRange(startDate, endDate);
-        } else {
-            sales = saleService.getAllSales();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            response.header(NEXT_CURSOR_HEADER, SaleCursor.of(saleDTOs.get(saleDTOs.size() - 1)).encode());
         }
+        return response.body(saleDTOs);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<SaleDTO> saleDTOs = sales.stream()
-                .map(dtoMapper::toSaleDTO)
-                .collect(Collectors.toList());
+        // One JSON object per line, written as rows come off the database cursor
+        StreamingResponseBody body = out -> saleService.streamSales(startDate, endDate, saleDTO -> {
+            try {
+                out.write(jsonMapper.writeValueAsBytes(saleDTO));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         
-        return ResponseEntity.ok(saleDTOs);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -55,4 +104,97 @@ public class SaleController {
         Sale savedSale = saleService.createSale(sale);
         return ResponseEntity.status(HttpStatus.CREATED).body(dtoMapper.toSaleDTO(savedSale));
     }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> createSalesBatch(@RequestBody List<SaleDTO> saleDTOs) {
+        SaleBatchResultDTO result = new SaleBatchResultDTO();
+        
+        for (int start = 0; start < saleDTOs.size(); start += BATCH_CHUNK_SIZE) {
+            List<SaleDTO> chunk = saleDTOs.subList(start, Math.min(start + BATCH_CHUNK_SIZE, saleDTOs.size()));
+            processChunk(chunk, start, result);
+        }
+        
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> createSalesBatchStream(InputStream body) throws IOException {
+        SaleBatchResultDTO result = new SaleBatchResultDTO();
+        List<SaleDTO> chunk = new ArrayList<>();
+        int chunkStart = 0;
+        int index = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                
+                try {
+                    chunk.add(jsonMapper.readValue(line, SaleDTO.class));
+                } catch (JacksonException e) {
+                    // Keep a placeholder so indexes still line up with the uploaded lines
+                    chunk.add(null);
+                    result.getErrors().add(new SaleBatchResultDTO.ItemError(index, "Invalid JSON: " + e.getOriginalMessage()));
+                }
+                index++;
+                
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    processChunk(chunk, chunkStart, result);
+                    chunkStart = index;
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, chunkStart, result);
+        }
+        
+        return ResponseEntity.ok(result);
+    }
+
+    private void processChunk(List<SaleDTO> chunk, int offset, SaleBatchResultDTO result) {
+        // Unparseable lines were already reported; only hand the rest to the service
+        List<Sale> sales = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.get(i) != null) {
+                sales.add(dtoMapper.toSaleEntity(chunk.get(i)));
+                positions.add(offset + i);
+            }
+        }
+        
+        SaleBatchResult batchResult;
+        try {
+            batchResult = saleService.createSales(sales);
+        } catch (RuntimeException e) {
+            // The chunk was rolled back, e.g. a concurrent sale used up stock the in-memory check counted on.
+            // Record its sales one at a time so only those that are really short are reported, and the
+            // chunks already committed are still part of the response.
+            batchResult = createOneByOne(sales);
+        }
+        
+        batchResult.getCreatedSales().forEach(sale -> result.getSales().add(dtoMapper.toSaleDTO(sale)));
+        batchResult.getErrors().forEach((i, message) -> 
+                result.getErrors().add(new SaleBatchResultDTO.ItemError(positions.get(i), message)));
+        
+        result.getErrors().sort(Comparator.comparingInt(SaleBatchResultDTO.ItemError::getIndex));
+        result.setReceived(result.getReceived() + chunk.size());
+        result.setCreated(result.getSales().size());
+        result.setFailed(result.getErrors().size());
+    }
+
+    private SaleBatchResult createOneByOne(List<Sale> sales) {
+        SaleBatchResult batchResult = new SaleBatchResult();
+        for (int i = 0; i < sales.size(); i++) {
+            try {
+                batchResult.getCreatedSales().add(saleService.createSale(sales.get(i)));
+            } catch (RuntimeException e) {
+                batchResult.getErrors().put(i, e.getMessage());
+            }
+        }
+        return batchResult;
+    }
 }
@@ -19,6 +19,7 @@ public class DTOMapper {
         dto.setPricePerUnit(material.getPricePerUnit());
         dto.setQuantity(material.getQuantity());
         dto.setDatePurchased(material.getDatePurchased());
+        dto.setReorderPoint(material.getReorderPoint());
         return dto;
     }
     
@@ -32,6 +33,7 @@ public class DTOMapper {
         material.setPricePerUnit(dto.getPricePerUnit());
         material.setQuantity(dto.getQuantity());
         material.setDatePurchased(dto.getDatePurchased());
+        material.setReorderPoint(dto.getReorderPoint());
         return material;
     }
     
@@ -0,0 +1,23 @@
+package com.project.sales_and_inventory_with_ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// How many servings of a food item current stock can still make, and which material runs out first.
+// servingsAvailable and the limiting material are null for a food item without ingredients.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodItemAvailabilityDTO {
+
+    private Long foodItemId;
+
+    private String foodItemName;
+
+    private Long servingsAvailable;
+
+    private Long limitingMaterialId;
+
+    private String limitingMaterialName;
+}
@@ -0,0 +1,26 @@
+package com.project.sales_and_inventory_with_ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One row of the food item / ingredient / material join; ingredient columns are null for a food item without ingredients
+@Data
+@AllArgsConstructor
+public class FoodItemIngredientRow {
+    
+    private Long foodItemId;
+    
+    private String foodItemName;
+    
+    private BigDecimal pricePerServing;
+    
+    private Long ingredientId;
+    
+    private Long materialId;
+    
+    private String materialName;
+    
+    private BigDecimal quantityRequired;
+}
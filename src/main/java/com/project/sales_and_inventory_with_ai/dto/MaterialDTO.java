@@ -33,4 +33,8 @@ public class MaterialDTO {
     
     @NotNull(message = "Date purchased is required")
     private LocalDate datePurchased;
+    
+    // Optional; materials without one use the configured default
+    @DecimalMin(value = "0.0", message = "Reorder point cannot be negative")
+    private BigDecimal reorderPoint;
 }
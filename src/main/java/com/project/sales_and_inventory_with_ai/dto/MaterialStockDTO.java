@@ -0,0 +1,24 @@
+package com.project.sales_and_inventory_with_ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Current stock of one material against the level at which it should be reordered
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialStockDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String unit;
+
+    private BigDecimal quantity;
+
+    private BigDecimal reorderPoint;
+}
@@ -0,0 +1,32 @@
+package com.project.sales_and_inventory_with_ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleBatchResultDTO {
+    
+    private int received;
+    
+    private int created;
+    
+    private int failed;
+    
+    private List<SaleDTO> sales = new ArrayList<>();
+    
+    private List<ItemError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private String message;
+    }
+}
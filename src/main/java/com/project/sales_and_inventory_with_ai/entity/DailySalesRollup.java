@@ -0,0 +1,48 @@
+package com.project.sales_and_inventory_with_ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Sales totals per day and food item, kept up to date as sales are recorded
+@Entity
+@Table(name = "daily_sales_rollup")
+@IdClass(DailySalesRollup.RollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+
+    @Id
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Id
+    @Column(name = "food_item_id", nullable = false)
+    private Long foodItemId;
+
+    @Column(name = "quantity_sold", nullable = false, precision = 19, scale = 4)
+    private BigDecimal quantitySold;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal revenue;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal profit;
+
+    @Column(name = "sale_count", nullable = false)
+    private Long saleCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupId implements Serializable {
+        private LocalDate saleDay;
+        private Long foodItemId;
+    }
+}
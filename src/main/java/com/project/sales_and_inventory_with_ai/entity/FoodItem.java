@@ -1,21 +1,34 @@
 package com.project.sales_and_inventory_with_ai.entity;
 
+import com.project.sales_and_inventory_with_ai.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(
+    name = FoodItem.RECIPE,
+    attributeNodes = @NamedAttributeNode(value = "ingredients", subgraph = "ingredients"),
+    subgraphs = @NamedSubgraph(name = "ingredients", attributeNodes = @NamedAttributeNode("material"))
+)
 @Table(name = "food_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.FOOD_ITEMS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FoodItem {
 
+    // Fetch plan for recipe views: ingredients together with their materials
+    public static final String RECIPE = "FoodItem.recipe";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,6 +40,7 @@ public class FoodItem {
     private BigDecimal pricePerServing;
 
     @OneToMany(mappedBy = "foodItem", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.RECIPE_INGREDIENTS)
     private List<Ingredient> ingredients = new ArrayList<>();
 
     // Helper method to add ingredient
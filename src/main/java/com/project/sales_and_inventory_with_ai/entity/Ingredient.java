@@ -1,14 +1,19 @@
 package com.project.sales_and_inventory_with_ai.entity;
 
+import com.project.sales_and_inventory_with_ai.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "ingredients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.INGREDIENTS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +27,7 @@ public class Ingredient {
     @JoinColumn(name = "food_item_id", nullable = false)
     private FoodItem foodItem;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "material_id", nullable = false)
     private Material material;
 
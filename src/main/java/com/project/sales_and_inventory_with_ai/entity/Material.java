@@ -1,15 +1,22 @@
 package com.project.sales_and_inventory_with_ai.entity;
 
+import com.project.sales_and_inventory_with_ai.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "materials")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.MATERIALS)
+@DynamicUpdate // Only changed columns are written, so an edit never overwrites a concurrent stock deduction
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,4 +40,8 @@ public class Material {
 
     @Column(name = "date_purchased", nullable = false)
     private LocalDate datePurchased;
+
+    // Stock below this is low; null falls back to inventory.low-stock.default-reorder-point
+    @Column(name = "reorder_point", precision = 10, scale = 2)
+    private BigDecimal reorderPoint;
 }
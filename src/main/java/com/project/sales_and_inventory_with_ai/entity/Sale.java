@@ -9,17 +9,24 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@NamedEntityGraph(name = Sale.WITH_FOOD_ITEM, attributeNodes = @NamedAttributeNode("foodItem"))
+@Table(name = "sales", indexes = @Index(name = "idx_sales_sale_date_id", columnList = "sale_date, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sale {
 
+    // Fetch plan for sale list and detail views
+    public static final String WITH_FOOD_ITEM = "Sale.withFoodItem";
+
+    // Sequence ids (pooled by 50) so Hibernate can batch inserts; IDENTITY disables JDBC batching.
+    // Databases created with the old identity column are moved over by SalesIdSequenceMigration.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "food_item_id", nullable = false)
     private FoodItem foodItem;
 
@@ -0,0 +1,47 @@
+package com.project.sales_and_inventory_with_ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Append-only ledger of every change to a material's stock
+@Entity
+@Table(name = "stock_movements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "material_id", nullable = false, updatable = false)
+    private Long materialId;
+
+    // Positive for stock added, negative for stock used
+    @Column(name = "quantity_change", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal quantityChange;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, updatable = false, length = 20)
+    private MovementType movementType;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum MovementType {
+        PURCHASE,
+        SALE,
+        ADJUSTMENT
+    }
+
+    public static StockMovement of(Long materialId, BigDecimal quantityChange, MovementType movementType) {
+        return new StockMovement(null, materialId, quantityChange, movementType, LocalDateTime.now());
+    }
+}
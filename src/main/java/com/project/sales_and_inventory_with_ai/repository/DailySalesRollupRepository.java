@@ -0,0 +1,44 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, DailySalesRollup.RollupId>,
+        DailySalesRollupRepositoryCustom {
+    
+    // Calculate total profit for whole days (inclusive)
+    @Query("SELECT COALESCE(SUM(r.profit), 0) FROM DailySalesRollup r WHERE r.saleDay BETWEEN :fromDay AND :toDay")
+    BigDecimal calculateTotalProfit(@Param("fromDay") LocalDate fromDay, 
+                                    @Param("toDay") LocalDate toDay);
+    
+    // Get total sales revenue for whole days (inclusive)
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM DailySalesRollup r WHERE r.saleDay BETWEEN :fromDay AND :toDay")
+    BigDecimal calculateTotalRevenue(@Param("fromDay") LocalDate fromDay, 
+                                     @Param("toDay") LocalDate toDay);
+    
+    // Get top-selling items by quantity for whole days (inclusive)
+    @Query("SELECT r.foodItemId, f.name, SUM(r.quantitySold) as totalQuantity " +
+           "FROM DailySalesRollup r, FoodItem f WHERE f.id = r.foodItemId " +
+           "AND r.saleDay BETWEEN :fromDay AND :toDay " +
+           "GROUP BY r.foodItemId, f.name " +
+           "ORDER BY totalQuantity DESC")
+    List<Object[]> findTopSellingItems(@Param("fromDay") LocalDate fromDay, 
+                                       @Param("toDay") LocalDate toDay);
+    
+    // Quantity, revenue and profit per day for whole days (inclusive), optionally for one food item
+    @Query("SELECT r.saleDay, SUM(r.quantitySold), SUM(r.revenue), SUM(r.profit) " +
+           "FROM DailySalesRollup r WHERE r.saleDay BETWEEN :fromDay AND :toDay " +
+           "AND (:foodItemId IS NULL OR r.foodItemId = :foodItemId) " +
+           "GROUP BY r.saleDay")
+    List<Object[]> findDailyTotals(@Param("fromDay") LocalDate fromDay, 
+                                   @Param("toDay") LocalDate toDay, 
+                                   @Param("foodItemId") Long foodItemId);
+}
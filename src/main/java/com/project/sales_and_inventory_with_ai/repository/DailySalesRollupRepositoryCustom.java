@@ -0,0 +1,14 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+
+import java.util.List;
+
+public interface DailySalesRollupRepositoryCustom {
+
+    // Add the given sales to their day/food item rows in one JDBC batch
+    void addSales(List<Sale> sales);
+
+    // Recompute the whole rollup from the sales table
+    void rebuild();
+}
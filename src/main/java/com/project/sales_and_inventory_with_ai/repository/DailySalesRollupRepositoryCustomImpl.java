@@ -0,0 +1,100 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class DailySalesRollupRepositoryCustomImpl implements DailySalesRollupRepositoryCustom {
+
+    // Upsert that adds to an existing row or creates it (works on Oracle and H2)
+    private static final String MERGE_SQL =
+            "MERGE INTO daily_sales_rollup r " +
+            "USING (SELECT CAST(? AS DATE) AS sale_day, CAST(? AS NUMERIC(19)) AS food_item_id, " +
+            "CAST(? AS NUMERIC(19,4)) AS quantity_sold, CAST(? AS NUMERIC(19,4)) AS revenue, " +
+            "CAST(? AS NUMERIC(19,4)) AS profit, CAST(? AS NUMERIC(19)) AS sale_count FROM dual) s " +
+            "ON (r.sale_day = s.sale_day AND r.food_item_id = s.food_item_id) " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "r.quantity_sold = r.quantity_sold + s.quantity_sold, " +
+            "r.revenue = r.revenue + s.revenue, " +
+            "r.profit = r.profit + s.profit, " +
+            "r.sale_count = r.sale_count + s.sale_count " +
+            "WHEN NOT MATCHED THEN INSERT (sale_day, food_item_id, quantity_sold, revenue, profit, sale_count) " +
+            "VALUES (s.sale_day, s.food_item_id, s.quantity_sold, s.revenue, s.profit, s.sale_count)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO daily_sales_rollup (sale_day, food_item_id, quantity_sold, revenue, profit, sale_count) " +
+            "SELECT TRUNC(sale_date), food_item_id, SUM(quantity_sold), SUM(sale_price * quantity_sold), " +
+            "COALESCE(SUM(profit), 0), COUNT(*) " +
+            "FROM sales GROUP BY TRUNC(sale_date), food_item_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addSales(List<Sale> sales) {
+        // Collapse the sales to one row per day and food item; sorted to lock rows in a stable order
+        Map<String, Object[]> totals = new TreeMap<>();
+        for (Sale sale : sales) {
+            LocalDate day = sale.getSaleDate().toLocalDate();
+            Long foodItemId = sale.getFoodItem().getId();
+            BigDecimal revenue = sale.getSalePrice().multiply(sale.getQuantitySold());
+            // Rounded like the sales.profit column so rollup and raw totals agree
+            BigDecimal profit = sale.getProfit() != null
+                    ? sale.getProfit().setScale(2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            
+            totals.merge(day + "/" + foodItemId,
+                    new Object[]{day, foodItemId, sale.getQuantitySold(), revenue, profit, 1L},
+                    (a, b) -> new Object[]{
+                            a[0], a[1],
+                            ((BigDecimal) a[2]).add((BigDecimal) b[2]),
+                            ((BigDecimal) a[3]).add((BigDecimal) b[3]),
+                            ((BigDecimal) a[4]).add((BigDecimal) b[4]),
+                            (Long) a[5] + (Long) b[5]
+                    });
+        }
+        
+        List<Object[]> rows = new ArrayList<>(totals.values());
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        jdbcTemplate.batchUpdate(MERGE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] row = rows.get(i);
+                ps.setDate(1, Date.valueOf((LocalDate) row[0]));
+                ps.setLong(2, (Long) row[1]);
+                ps.setBigDecimal(3, (BigDecimal) row[2]);
+                ps.setBigDecimal(4, (BigDecimal) row[3]);
+                ps.setBigDecimal(5, (BigDecimal) row[4]);
+                ps.setLong(6, (Long) row[5]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM daily_sales_rollup");
+        jdbcTemplate.update(REBUILD_SQL);
+    }
+}
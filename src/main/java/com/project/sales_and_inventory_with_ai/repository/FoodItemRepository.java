@@ -1,24 +1,60 @@
 package com.project.sales_and_inventory_with_ai.repository;
 
+import com.project.sales_and_inventory_with_ai.config.HibernateCacheConfig;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     
-    // Find food items by name (case-insensitive)
-    List<FoodItem> findByNameContainingIgnoreCase(String name);
-    
-    // Find food item with ingredients loaded (to avoid N+1 queries)
-    @Query("SELECT f FROM FoodItem f LEFT JOIN FETCH f.ingredients WHERE f.id = :id")
-    Optional<FoodItem> findByIdWithIngredients(Long id);
+    // Find food item with ingredients and their materials loaded (to avoid N+1 queries);
+    // results come from the query cache until a food item, ingredient or material is written
+    @EntityGraph(FoodItem.RECIPE)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.RECIPE_QUERIES)})
+    @Query("SELECT f FROM FoodItem f WHERE f.id = :id")
+    Optional<FoodItem> findByIdWithIngredients(@Param("id") Long id);
     
     // Find all food items with ingredients loaded
-    @Query("SELECT DISTINCT f FROM FoodItem f LEFT JOIN FETCH f.ingredients")
+    @EntityGraph(FoodItem.RECIPE)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.RECIPE_QUERIES)})
+    @Query("SELECT f FROM FoodItem f")
     List<FoodItem> findAllWithIngredients();
+    
+    // Find several food items with ingredients loaded in one query
+    @EntityGraph(FoodItem.RECIPE)
+    @Query("SELECT f FROM FoodItem f WHERE f.id IN :ids")
+    List<FoodItem> findAllByIdWithIngredients(@Param("ids") Collection<Long> ids);
+    
+    // Flat food item / ingredient rows for the list endpoints, ordered so each food item's rows are adjacent
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow(" +
+           "f.id, f.name, f.pricePerServing, i.id, m.id, m.name, i.quantityRequired) " +
+           "FROM FoodItem f LEFT JOIN f.ingredients i LEFT JOIN i.material m " +
+           "ORDER BY f.id, i.id")
+    List<FoodItemIngredientRow> findAllIngredientRows();
+    
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow(" +
+           "f.id, f.name, f.pricePerServing, i.id, m.id, m.name, i.quantityRequired) " +
+           "FROM FoodItem f LEFT JOIN f.ingredients i LEFT JOIN i.material m " +
+           "WHERE f.id IN :ids ORDER BY f.id, i.id")
+    List<FoodItemIngredientRow> findIngredientRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow(" +
+           "f.id, f.name, f.pricePerServing, i.id, m.id, m.name, i.quantityRequired) " +
+           "FROM FoodItem f LEFT JOIN f.ingredients i LEFT JOIN i.material m " +
+           "WHERE f.id = :id ORDER BY i.id")
+    List<FoodItemIngredientRow> findIngredientRowsById(@Param("id") Long id);
 }
@@ -1,6 +1,7 @@
 package com.project.sales_and_inventory_with_ai.repository;
 
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,7 @@ import java.util.List;
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     
     // Find ingredients by food item
+    @EntityGraph(attributePaths = "material")
     List<Ingredient> findByFoodItemId(Long foodItemId);
     
     // Find ingredients by material
@@ -1,17 +1,29 @@
 package com.project.sales_and_inventory_with_ai.repository;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MaterialRepository extends JpaRepository<Material, Long> {
-    
-    // Find materials by name (case-insensitive)
-    List<Material> findByNameContainingIgnoreCase(String name);
+public interface MaterialRepository extends JpaRepository<Material, Long>, MaterialRepositoryCustom {
     
     // Find materials with low stock (quantity below threshold)
     List<Material> findByQuantityLessThan(java.math.BigDecimal threshold);
+    
+    // Read-only projections straight into DTOs for the list endpoints
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.MaterialDTO(" +
+           "m.id, m.name, m.unit, m.pricePerUnit, m.quantity, m.datePurchased, m.reorderPoint) " +
+           "FROM Material m ORDER BY m.id")
+    List<MaterialDTO> findAllAsDTO();
+    
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.MaterialDTO(" +
+           "m.id, m.name, m.unit, m.pricePerUnit, m.quantity, m.datePurchased, m.reorderPoint) " +
+           "FROM Material m WHERE m.id IN :ids")
+    List<MaterialDTO> findAllAsDTOByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface MaterialRepositoryCustom {
+
+    // Deduct several materials in one JDBC batch; returns the ids that did not have enough stock
+    List<Long> deductQuantities(Map<Long, BigDecimal> quantities);
+
+    // Current stock of the given materials, read from the table rather than any cache
+    List<MaterialStockDTO> findStock(Collection<Long> materialIds);
+
+    // Current stock of one material, row locked until the transaction ends; null when it does not exist
+    MaterialStockDTO findStockForUpdate(Long materialId);
+}
@@ -0,0 +1,94 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.util.TransactionHooks;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class MaterialRepositoryCustomImpl implements MaterialRepositoryCustom {
+
+    // Conditional decrement: the row is only touched when there is enough stock left
+    private static final String DEDUCT_SQL =
+            "UPDATE materials SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    private static final String STOCK_SQL = "SELECT id, name, unit, quantity, reorder_point FROM materials";
+
+    private static final RowMapper<MaterialStockDTO> STOCK_ROW = (rs, rowNum) -> new MaterialStockDTO(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getBigDecimal(5));
+
+    // Oracle allows at most 1000 expressions in an IN list
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<Long> deductQuantities(Map<Long, BigDecimal> quantities) {
+        // Always lock rows in id order so concurrent sales cannot deadlock each other
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(DEDUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, BigDecimal> entry = entries.get(i);
+                ps.setBigDecimal(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.setBigDecimal(3, entry.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                insufficient.add(entries.get(i).getKey());
+            }
+        }
+        evictFromSecondLevelCache(quantities.keySet());
+        return insufficient;
+    }
+
+    @Override
+    public List<MaterialStockDTO> findStock(Collection<Long> materialIds) {
+        List<Long> ids = List.copyOf(materialIds);
+        List<MaterialStockDTO> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            rows.addAll(jdbcTemplate.query(STOCK_SQL + " WHERE id IN (" + placeholders + ")", STOCK_ROW, chunk.toArray()));
+        }
+        return rows;
+    }
+
+    @Override
+    public MaterialStockDTO findStockForUpdate(Long materialId) {
+        List<MaterialStockDTO> rows = jdbcTemplate.query(STOCK_SQL + " WHERE id = ? FOR UPDATE", STOCK_ROW, materialId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // The UPDATE bypasses Hibernate, so cached copies are dropped now and again after commit,
+    // in case another transaction re-cached the old quantity in between
+    private void evictFromSecondLevelCache(Collection<Long> materialIds) {
+        List<Long> ids = List.copyOf(materialIds);
+        TransactionHooks.nowAndAfterCommit(() -> ids.forEach(id -> entityManagerFactory.getCache().evict(Material.class, id)));
+    }
+}
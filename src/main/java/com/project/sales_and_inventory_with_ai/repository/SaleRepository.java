@@ -1,22 +1,41 @@
 package com.project.sales_and_inventory_with_ai.repository;
 
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
     
+    // Sale detail and list reads fetch the food item in the same query
+    @Override
+    @EntityGraph(Sale.WITH_FOOD_ITEM)
+    Optional<Sale> findById(Long id);
+    
+    @Override
+    @EntityGraph(Sale.WITH_FOOD_ITEM)
+    List<Sale> findAll();
+    
     // Find sales by date range
+    @EntityGraph(Sale.WITH_FOOD_ITEM)
     List<Sale> findBySaleDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     // Find sales by food item
+    @EntityGraph(Sale.WITH_FOOD_ITEM)
     List<Sale> findByFoodItemId(Long foodItemId);
     
     // Calculate total profit for a date range
@@ -37,4 +56,64 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
            "WHERE s.saleDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalRevenue(@Param("startDate") LocalDateTime startDate, 
                                       @Param("endDate") LocalDateTime endDate);
+    
+    // Same aggregates with an exclusive end, used for partial days next to the daily rollup
+    @Query("SELECT COALESCE(SUM(s.profit), 0) FROM Sale s WHERE s.saleDate >= :startDate AND s.saleDate < :endDate")
+    BigDecimal calculateTotalProfitExclusive(@Param("startDate") LocalDateTime startDate, 
+                                             @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COALESCE(SUM(s.salePrice * s.quantitySold), 0) FROM Sale s " +
+           "WHERE s.saleDate >= :startDate AND s.saleDate < :endDate")
+    BigDecimal calculateTotalRevenueExclusive(@Param("startDate") LocalDateTime startDate, 
+                                              @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT s.foodItem.id, s.foodItem.name, SUM(s.quantitySold) as totalQuantity " +
+           "FROM Sale s WHERE s.saleDate >= :startDate AND s.saleDate < :endDate " +
+           "GROUP BY s.foodItem.id, s.foodItem.name " +
+           "ORDER BY totalQuantity DESC")
+    List<Object[]> findTopSellingItemsExclusive(@Param("startDate") LocalDateTime startDate, 
+                                                @Param("endDate") LocalDateTime endDate);
+    
+    // Quantity, revenue and profit per hour for a range (exclusive end), optionally for one food item.
+    // Grouped on the date parts so the hour boundaries are the same on Oracle and H2.
+    @Query("SELECT year(s.saleDate), month(s.saleDate), day(s.saleDate), hour(s.saleDate), " +
+           "SUM(s.quantitySold), SUM(s.salePrice * s.quantitySold), COALESCE(SUM(s.profit), 0) " +
+           "FROM Sale s WHERE s.saleDate >= :startDate AND s.saleDate < :endDate " +
+           "AND (:foodItemId IS NULL OR s.foodItem.id = :foodItemId) " +
+           "GROUP BY year(s.saleDate), month(s.saleDate), day(s.saleDate), hour(s.saleDate)")
+    List<Object[]> findHourlyTotals(@Param("startDate") LocalDateTime startDate, 
+                                    @Param("endDate") LocalDateTime endDate, 
+                                    @Param("foodItemId") Long foodItemId);
+    
+    // Keyset pages, newest first, projected straight into DTOs; served by the (sale_date, id) index
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.SaleDTO(" +
+           "s.id, f.id, f.name, s.quantitySold, s.salePrice, s.saleDate, s.profit, s.costOfIngredients) " +
+           "FROM Sale s JOIN s.foodItem f " +
+           "WHERE (:startDate IS NULL OR s.saleDate >= :startDate) AND (:endDate IS NULL OR s.saleDate <= :endDate) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    List<SaleDTO> findFirstPage(@Param("startDate") LocalDateTime startDate, 
+                                @Param("endDate") LocalDateTime endDate, 
+                                Limit limit);
+    
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.SaleDTO(" +
+           "s.id, f.id, f.name, s.quantitySold, s.salePrice, s.saleDate, s.profit, s.costOfIngredients) " +
+           "FROM Sale s JOIN s.foodItem f " +
+           "WHERE (:startDate IS NULL OR s.saleDate >= :startDate) AND (:endDate IS NULL OR s.saleDate <= :endDate) " +
+           "AND (s.saleDate < :afterDate OR (s.saleDate = :afterDate AND s.id < :afterId)) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    List<SaleDTO> findPageAfter(@Param("startDate") LocalDateTime startDate, 
+                                @Param("endDate") LocalDateTime endDate, 
+                                @Param("afterDate") LocalDateTime afterDate, 
+                                @Param("afterId") Long afterId, 
+                                Limit limit);
+    
+    // Forward-only cursor over the sales for streaming exports; rows are fetched from the driver in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.project.sales_and_inventory_with_ai.dto.SaleDTO(" +
+           "s.id, f.id, f.name, s.quantitySold, s.salePrice, s.saleDate, s.profit, s.costOfIngredients) " +
+           "FROM Sale s JOIN s.foodItem f " +
+           "WHERE (:startDate IS NULL OR s.saleDate >= :startDate) AND (:endDate IS NULL OR s.saleDate <= :endDate) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    Stream<SaleDTO> streamSales(@Param("startDate") LocalDateTime startDate, 
+                                @Param("endDate") LocalDateTime endDate);
 }
@@ -0,0 +1,24 @@
+package com.project.sales_and_inventory_with_ai.repository;
+
+import com.project.sales_and_inventory_with_ai.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    // Find movements for a material, newest first
+    List<StockMovement> findByMaterialIdOrderByCreatedAtDesc(Long materialId);
+    
+    // Count movements of one type for a material
+    long countByMaterialIdAndMovementType(Long materialId, StockMovement.MovementType movementType);
+    
+    // Net stock change recorded for a material
+    @Query("SELECT COALESCE(SUM(m.quantityChange), 0) FROM StockMovement m WHERE m.materialId = :materialId")
+    BigDecimal sumQuantityChange(@Param("materialId") Long materialId);
+}
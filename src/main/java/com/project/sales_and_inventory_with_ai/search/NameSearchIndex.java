@@ -0,0 +1,105 @@
+package com.project.sales_and_inventory_with_ai.search;
+
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import com.project.sales_and_inventory_with_ai.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Name search for materials and food items, answered from memory so the search box no longer
+// runs a LIKE '%...%' scan per keystroke. The services report every create, rename and delete;
+// the index applies them once the transaction commits.
+@Component
+@Slf4j
+public class NameSearchIndex {
+
+    private final MaterialRepository materialRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final int maxResults;
+
+    private final TrigramIndex materials;
+    private final TrigramIndex foodItems;
+
+    public NameSearchIndex(
+            MaterialRepository materialRepository,
+            FoodItemRepository foodItemRepository,
+            @Value("${inventory.search.min-similarity:0.4}") double minSimilarity,
+            @Value("${inventory.search.max-results:50}") int maxResults) {
+        
+        this.materialRepository = materialRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.maxResults = maxResults;
+        this.materials = new TrigramIndex(minSimilarity);
+        this.foodItems = new TrigramIndex(minSimilarity);
+    }
+
+    // Once the startup data loaders have run
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (MaterialDTO material : materialRepository.findAllAsDTO()) {
+            materials.put(material.getId(), material.getName());
+        }
+        Long previous = null;
+        for (FoodItemIngredientRow row : foodItemRepository.findAllIngredientRows()) {
+            // One row per ingredient, adjacent per food item
+            if (!row.getFoodItemId().equals(previous)) {
+                foodItems.put(row.getFoodItemId(), row.getFoodItemName());
+                previous = row.getFoodItemId();
+            }
+        }
+        log.info("Search index built for {} materials and {} food items", materials.size(), foodItems.size());
+    }
+
+    // Material ids ranked best match first
+    public List<Long> searchMaterials(String query) {
+        return materials.search(query, maxResults);
+    }
+
+    // Food item ids ranked best match first
+    public List<Long> searchFoodItems(String query) {
+        return foodItems.search(query, maxResults);
+    }
+
+    // Loads the ranked ids by primary key (no query when nothing matched) and puts the rows back in rank order
+    public static <T> List<T> inRankOrder(List<Long> rankedIds, Function<Collection<Long>, List<T>> loader,
+                                          Function<T, Long> idOf) {
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        return loader.apply(rankedIds).stream()
+                .sorted(Comparator.comparing(row -> rank.get(idOf.apply(row))))
+                .toList();
+    }
+
+    public void materialSaved(Long id, String name) {
+        TransactionHooks.afterCommit(() -> materials.put(id, name));
+    }
+
+    public void materialDeleted(Long id) {
+        TransactionHooks.afterCommit(() -> materials.remove(id));
+    }
+
+    public void foodItemSaved(Long id, String name) {
+        TransactionHooks.afterCommit(() -> foodItems.put(id, name));
+    }
+
+    public void foodItemDeleted(Long id) {
+        TransactionHooks.afterCommit(() -> foodItems.remove(id));
+    }
+}
@@ -0,0 +1,197 @@
+package com.project.sales_and_inventory_with_ai.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over short names. Each word is padded like "  flour " before it is cut into
+// trigrams, so the leading trigrams also answer prefix (autocomplete) queries. A search only scores the
+// names that share a trigram with the query, found through the posting lists, and ranks exact matches
+// first, then prefix and substring matches, then names that are merely similar (typos).
+public class TrigramIndex {
+
+    private final double minSimilarity;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(String text, List<String> words, Set<String> trigrams, List<Set<String>> wordTrigrams) {
+    }
+
+    private record Match(Long id, double score, int length) {
+    }
+
+    public TrigramIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    public void put(Long id, String name) {
+        String text = normalize(name);
+        List<String> words = text.isEmpty() ? List.of() : List.of(text.split(" "));
+        List<Set<String>> wordTrigrams = new ArrayList<>();
+        for (String word : words) {
+            wordTrigrams.add(trigrams(List.of(word), false));
+        }
+        Entry entry = new Entry(text, words, trigrams(words, false), wordTrigrams);
+
+        lock.writeLock().lock();
+        try {
+            unlink(id, entries.put(id, entry));
+            for (String trigram : entry.trigrams()) {
+                postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unlink(id, entries.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the best matching names, best first. The last query word may be incomplete, as it is while typing.
+    public List<Long> search(String query, int limit) {
+        String text = normalize(query);
+        if (text.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<String> words = List.of(text.split(" "));
+        Set<String> queryTrigrams = trigrams(words, true);
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (String trigram : queryTrigrams) {
+                candidates.addAll(postings.getOrDefault(trigram, Set.of()));
+            }
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                double score = score(text, words, queryTrigrams, entry);
+                if (score > 0) {
+                    matches.add(new Match(id, score, entry.text().length()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(Match::score).reversed()
+                .thenComparingInt(Match::length)
+                .thenComparing(Match::id));
+        return matches.stream().limit(limit).map(Match::id).toList();
+    }
+
+    // 0 when the name does not match well enough; otherwise a tier bonus plus the trigram similarity
+    private double score(String text, List<String> words, Set<String> queryTrigrams, Entry entry) {
+        double similarity = dice(queryTrigrams, entry.trigrams());
+        for (Set<String> wordTrigrams : entry.wordTrigrams()) {
+            similarity = Math.max(similarity, dice(queryTrigrams, wordTrigrams));
+        }
+
+        if (entry.text().equals(text)) {
+            return 4 + similarity;
+        }
+        if (entry.text().startsWith(text)) {
+            return 3 + similarity;
+        }
+        if (words.size() == 1 && entry.words().stream().anyMatch(word -> word.startsWith(text))) {
+            return 2 + similarity;
+        }
+        if (entry.text().contains(text)) {
+            return 1 + similarity;
+        }
+        return similarity >= minSimilarity ? similarity : 0;
+    }
+
+    private void unlink(Long id, Entry previous) {
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : previous.trigrams()) {
+            postings.computeIfPresent(trigram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static double dice(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String trigram : smaller) {
+            if (larger.contains(trigram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (a.size() + b.size());
+    }
+
+    // Words padded with two leading spaces and one trailing space; the trailing one is left off
+    // the last word of a prefix query so "flo" still matches "flour"
+    static Set<String> trigrams(List<String> words, boolean prefix) {
+        Set<String> trigrams = new HashSet<>();
+        for (int w = 0; w < words.size(); w++) {
+            String padded = "  " + words.get(w) + (prefix && w == words.size() - 1 ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return Collections.unmodifiableSet(trigrams);
+    }
+
+    // Lower case without accents or punctuation, with the spellings Taglish typists swap folded together
+    // (tsokolate / chocolate, keso / queso, pish / fish, banilya / vanilla, pitsa / pizza, pinya / piña)
+    // and doubled letters collapsed (coffe / coffee).
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        // ñ is typed as "ny" (piña / pinya), other accents are dropped
+        String folded = Normalizer.normalize(text.replace("ñ", "ny").replace("Ñ", "Ny"), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", " ")
+                .trim();
+        folded = folded.replace("ph", "f")
+                .replace("ch", "ts")
+                .replace("qu", "k")
+                .replace("c", "k")
+                .replace("x", "ks")
+                .replace("f", "p")
+                .replace("v", "b")
+                .replace("zz", "ts")
+                .replace("z", "s")
+                .replace("ll", "ly")
+                .replace("y", "i");
+        return folded.replaceAll("([a-z])\\1+", "$1");
+    }
+}
@@ -0,0 +1,270 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.dto.FoodItemAvailabilityDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servings each food item can still make from current stock, kept up to date incrementally.
+// A stock or recipe change only recomputes the food items that use the changed materials,
+// found through a material to food item reverse map, so reads never touch the database.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodItemAvailabilityIndex {
+
+    private final MaterialRepository materialRepository;
+    private final FoodItemRepository foodItemRepository;
+
+    private final Map<Long, MaterialStock> stock = new ConcurrentHashMap<>();
+    private final Map<Long, Recipe> recipes = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> foodItemsByMaterial = new ConcurrentHashMap<>();
+    private final Map<Long, FoodItemAvailabilityDTO> availability = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyMaterials = ConcurrentHashMap.newKeySet();
+
+    // Stock reads are numbered so a slow read can never overwrite one that started after it
+    // (the scheduled refresh and a recipe reload may both read the same material)
+    private final AtomicLong reads = new AtomicLong();
+
+    private record MaterialStock(String name, BigDecimal quantity, long read) {
+    }
+
+    // Quantity required per material for one serving
+    private record Recipe(String name, Map<Long, BigDecimal> quantities) {
+    }
+
+    // Once the startup data loaders have run
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long read = reads.incrementAndGet();
+        for (MaterialDTO material : materialRepository.findAllAsDTO()) {
+            applyStock(material.getId(), material.getName(), material.getQuantity(), read);
+        }
+
+        Map<Long, List<FoodItemIngredientRow>> rowsByFoodItem = new LinkedHashMap<>();
+        for (FoodItemIngredientRow row : foodItemRepository.findAllIngredientRows()) {
+            rowsByFoodItem.computeIfAbsent(row.getFoodItemId(), id -> new ArrayList<>()).add(row);
+        }
+        Set<Long> removed = new HashSet<>(recipes.keySet());
+        removed.removeAll(rowsByFoodItem.keySet());
+        rowsByFoodItem.forEach(this::replaceRecipe);
+        removed.forEach(foodItemId -> replaceRecipe(foodItemId, List.of()));
+
+        log.info("Availability index built for {} food items and {} materials", recipes.size(), stock.size());
+    }
+
+    public List<FoodItemAvailabilityDTO> getAll() {
+        List<FoodItemAvailabilityDTO> all = new ArrayList<>(availability.values());
+        all.sort(Comparator.comparing(FoodItemAvailabilityDTO::getFoodItemId));
+        return all;
+    }
+
+    // Stock or name of these materials changed. Once the surrounding transaction commits they are marked
+    // for the next scheduled refresh, so a sale never waits on a stock read and a burst of sales shares one.
+    public void refreshMaterials(Collection<Long> materialIds) {
+        PendingRefresh pending = pendingRefresh();
+        if (pending == null) {
+            dirtyMaterials.addAll(materialIds);
+        } else {
+            pending.materialIds.addAll(materialIds);
+        }
+    }
+
+    // Recipe of this food item changed, or it was created or deleted; reloaded as soon as that commits
+    public void refreshFoodItem(Long foodItemId) {
+        PendingRefresh pending = pendingRefresh();
+        if (pending == null) {
+            reloadFoodItem(foodItemId);
+        } else {
+            pending.foodItemIds.add(foodItemId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.availability.refresh-interval:200}")
+    public void refreshPending() {
+        if (dirtyMaterials.isEmpty()) {
+            return;
+        }
+        List<Long> materialIds = new ArrayList<>();
+        for (Iterator<Long> it = dirtyMaterials.iterator(); it.hasNext(); ) {
+            materialIds.add(it.next());
+            it.remove();
+        }
+        try {
+            reloadMaterials(materialIds);
+        } catch (RuntimeException e) {
+            dirtyMaterials.addAll(materialIds);
+            log.warn("Could not refresh availability for materials {}, will retry: {}", materialIds, e.getMessage());
+        }
+    }
+
+    // All changes of one transaction are applied together after it commits, and dropped if it rolls back
+    private PendingRefresh pendingRefresh() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void reloadMaterials(Collection<Long> materialIds) {
+        long read = reads.incrementAndGet();
+        Map<Long, MaterialStockDTO> rows = new HashMap<>();
+        for (MaterialStockDTO row : materialRepository.findStock(materialIds)) {
+            rows.put(row.getId(), row);
+        }
+
+        for (Long materialId : materialIds) {
+            MaterialStockDTO row = rows.get(materialId);
+            if (row == null) {
+                stock.remove(materialId);
+            } else {
+                applyStock(materialId, row.getName(), row.getQuantity(), read);
+            }
+            recompute(foodItemsByMaterial.getOrDefault(materialId, Set.of()));
+        }
+    }
+
+    private void applyStock(Long materialId, String name, BigDecimal quantity, long read) {
+        stock.merge(materialId, new MaterialStock(name, quantity, read),
+                (current, loaded) -> current.read() > loaded.read() ? current : loaded);
+    }
+
+    private synchronized void reloadFoodItem(Long foodItemId) {
+        replaceRecipe(foodItemId, foodItemRepository.findIngredientRowsById(foodItemId));
+    }
+
+    // Swaps in a food item's recipe and its reverse map links; no rows means the food item is gone
+    private void replaceRecipe(Long foodItemId, List<FoodItemIngredientRow> rows) {
+        Recipe recipe = rows.isEmpty() ? null : toRecipe(rows);
+        Recipe previous = recipe == null ? recipes.remove(foodItemId) : recipes.put(foodItemId, recipe);
+
+        List<Long> unknownMaterials = new ArrayList<>();
+        if (recipe != null) {
+            for (Long materialId : recipe.quantities().keySet()) {
+                foodItemsByMaterial.computeIfAbsent(materialId, id -> ConcurrentHashMap.newKeySet()).add(foodItemId);
+                if (!stock.containsKey(materialId)) {
+                    unknownMaterials.add(materialId);
+                }
+            }
+        }
+        if (previous != null) {
+            for (Long materialId : previous.quantities().keySet()) {
+                if (recipe == null || !recipe.quantities().containsKey(materialId)) {
+                    foodItemsByMaterial.computeIfPresent(materialId, (id, foodItemIds) -> {
+                        foodItemIds.remove(foodItemId);
+                        return foodItemIds.isEmpty() ? null : foodItemIds;
+                    });
+                }
+            }
+        }
+
+        if (!unknownMaterials.isEmpty()) {
+            reloadMaterials(unknownMaterials);
+        }
+        recompute(List.of(foodItemId));
+    }
+
+    private static Recipe toRecipe(List<FoodItemIngredientRow> rows) {
+        Map<Long, BigDecimal> quantities = new HashMap<>();
+        for (FoodItemIngredientRow row : rows) {
+            if (row.getMaterialId() != null) {
+                quantities.merge(row.getMaterialId(), row.getQuantityRequired(), BigDecimal::add);
+            }
+        }
+        return new Recipe(rows.get(0).getFoodItemName(), Map.copyOf(quantities));
+    }
+
+    // Runs per food item under the map's lock, so the last recompute always sees the latest stock
+    private void recompute(Collection<Long> foodItemIds) {
+        for (Long foodItemId : foodItemIds) {
+            availability.compute(foodItemId, (id, current) -> {
+                Recipe recipe = recipes.get(id);
+                return recipe == null ? null : servings(id, recipe);
+            });
+        }
+    }
+
+    private FoodItemAvailabilityDTO servings(Long foodItemId, Recipe recipe) {
+        FoodItemAvailabilityDTO result = new FoodItemAvailabilityDTO(foodItemId, recipe.name(), null, null, null);
+        for (Map.Entry<Long, BigDecimal> line : recipe.quantities().entrySet()) {
+            if (line.getValue().signum() <= 0) {
+                continue;
+            }
+            MaterialStock material = stock.get(line.getKey());
+            long possible = material == null || material.quantity().signum() <= 0 ? 0
+                    : material.quantity().divide(line.getValue(), 0, RoundingMode.FLOOR).longValue();
+            if (result.getServingsAvailable() == null || possible < result.getServingsAvailable()) {
+                result.setServingsAvailable(possible);
+                result.setLimitingMaterialId(line.getKey());
+                result.setLimitingMaterialName(material == null ? null : material.name());
+            }
+        }
+        return result;
+    }
+
+    // Changes collected during one transaction
+    private class PendingRefresh implements TransactionSynchronization {
+
+        private final Set<Long> materialIds = new HashSet<>();
+        private final Set<Long> foodItemIds = new HashSet<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(FoodItemAvailabilityIndex.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(FoodItemAvailabilityIndex.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            dirtyMaterials.addAll(materialIds);
+            for (Long foodItemId : foodItemIds) {
+                try {
+                    reloadFoodItem(foodItemId);
+                } catch (RuntimeException e) {
+                    // The change itself is committed; the index catches up on the next change to this food item
+                    log.warn("Could not refresh availability for food item {}: {}", foodItemId, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(FoodItemAvailabilityIndex.this);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.FoodItemAvailabilityDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemDTO;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FoodItemService {
     
     List<FoodItem> getAllFoodItems();
     
+    List<FoodItemDTO> getAllFoodItemDTOs();
+    
     FoodItem getFoodItemById(Long id);
     
+    List<FoodItem> getFoodItemsByIds(Collection<Long> ids);
+    
     FoodItem createFoodItem(FoodItem foodItem);
     
     FoodItem updateFoodItem(Long id, FoodItem foodItem);
@@ -19,7 +26,12 @@ public interface FoodItemService {
     
     List<FoodItem> searchFoodItemsByName(String name);
     
+    List<FoodItemDTO> searchFoodItemDTOsByName(String name);
+    
     FoodItem addIngredientToFoodItem(Long foodItemId, Ingredient ingredient);
     
     void removeIngredientFromFoodItem(Long foodItemId, Long ingredientId);
+    
+    // Servings each food item can still make from current stock
+    List<FoodItemAvailabilityDTO> getAvailability();
 }
@@ -1,16 +1,26 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.FoodItemAvailabilityDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
+import com.project.sales_and_inventory_with_ai.dto.IngredientDTO;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
 import com.project.sales_and_inventory_with_ai.repository.IngredientRepository;
+import com.project.sales_and_inventory_with_ai.search.NameSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +30,9 @@ public class FoodItemServiceImpl implements FoodItemService {
     private final FoodItemRepository foodItemRepository;
     private final IngredientRepository ingredientRepository;
     private final MaterialService materialService;
+    private final RecipeCache recipeCache;
+    private final FoodItemAvailabilityIndex availabilityIndex;
+    private final NameSearchIndex searchIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -27,6 +40,12 @@ public class FoodItemServiceImpl implements FoodItemService {
         return foodItemRepository.findAllWithIngredients();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<FoodItemDTO> getAllFoodItemDTOs() {
+        return toFoodItemDTOs(foodItemRepository.findAllIngredientRows());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public FoodItem getFoodItemById(Long id) {
@@ -34,6 +53,15 @@ public class FoodItemServiceImpl implements FoodItemService {
                 .orElseThrow(() -> new RuntimeException("Food item not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<FoodItem> getFoodItemsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return foodItemRepository.findAllByIdWithIngredients(ids);
+    }
+
     @Override
     public FoodItem createFoodItem(FoodItem foodItem) {
         if (foodItem.getPricePerServing().compareTo(BigDecimal.ZERO) <= 0) {
@@ -58,6 +86,8 @@ public class FoodItemServiceImpl implements FoodItemService {
             savedFoodItem.setIngredients(foodItem.getIngredients());
             ingredientRepository.saveAll(foodItem.getIngredients());
         }
+        availabilityIndex.refreshFoodItem(savedFoodItem.getId());
+        searchIndex.foodItemSaved(savedFoodItem.getId(), savedFoodItem.getName());
         
         return savedFoodItem;
     }
@@ -65,6 +95,9 @@ public class FoodItemServiceImpl implements FoodItemService {
     @Override
     public FoodItem updateFoodItem(Long id, FoodItem foodItem) {
         FoodItem existingFoodItem = getFoodItemById(id);
+        recipeCache.invalidate(id);
+        availabilityIndex.refreshFoodItem(id);
+        searchIndex.foodItemSaved(id, foodItem.getName());
         
         existingFoodItem.setName(foodItem.getName());
         existingFoodItem.setPricePerServing(foodItem.getPricePerServing());
@@ -92,12 +125,23 @@ public class FoodItemServiceImpl implements FoodItemService {
             throw new RuntimeException("Food item not found with id: " + id);
         }
         foodItemRepository.deleteById(id);
+        recipeCache.invalidate(id);
+        availabilityIndex.refreshFoodItem(id);
+        searchIndex.foodItemDeleted(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<FoodItem> searchFoodItemsByName(String name) {
-        return foodItemRepository.findByNameContainingIgnoreCase(name);
+        return NameSearchIndex.inRankOrder(searchIndex.searchFoodItems(name), foodItemRepository::findAllByIdWithIngredients,
+                FoodItem::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FoodItemDTO> searchFoodItemDTOsByName(String name) {
+        return NameSearchIndex.inRankOrder(searchIndex.searchFoodItems(name),
+                ids -> toFoodItemDTOs(foodItemRepository.findIngredientRowsByIds(ids)), FoodItemDTO::getId);
     }
 
     @Override
@@ -110,6 +154,8 @@ public class FoodItemServiceImpl implements FoodItemService {
         
         ingredientRepository.save(ingredient);
         foodItem.addIngredient(ingredient);
+        recipeCache.invalidate(foodItemId);
+        availabilityIndex.refreshFoodItem(foodItemId);
         
         return foodItem;
     }
@@ -126,5 +172,28 @@ public class FoodItemServiceImpl implements FoodItemService {
         
         foodItem.removeIngredient(ingredient);
         ingredientRepository.delete(ingredient);
+        recipeCache.invalidate(foodItemId);
+        availabilityIndex.refreshFoodItem(foodItemId);
+    }
+
+    // Served from memory, so no transaction or connection is needed
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<FoodItemAvailabilityDTO> getAvailability() {
+        return availabilityIndex.getAll();
+    }
+
+    // Folds the flat join rows back into one DTO per food item, keeping the query's order
+    private List<FoodItemDTO> toFoodItemDTOs(List<FoodItemIngredientRow> rows) {
+        Map<Long, FoodItemDTO> foodItems = new LinkedHashMap<>();
+        for (FoodItemIngredientRow row : rows) {
+            FoodItemDTO dto = foodItems.computeIfAbsent(row.getFoodItemId(), id -> 
+                    new FoodItemDTO(id, row.getFoodItemName(), row.getPricePerServing(), new ArrayList<>()));
+            if (row.getIngredientId() != null) {
+                dto.getIngredients().add(new IngredientDTO(row.getIngredientId(), row.getMaterialId(), 
+                        row.getMaterialName(), row.getQuantityRequired()));
+            }
+        }
+        return new ArrayList<>(foodItems.values());
     }
 }
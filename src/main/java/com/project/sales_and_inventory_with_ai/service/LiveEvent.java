@@ -0,0 +1,15 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+// One entry of the /api/events stream, with its payload already serialized to JSON for every subscriber.
+// id is "<epoch>-<sequence>" so a client resuming after a restart is recognised and told to reset.
+public record LiveEvent(long sequence, String id, String type, String data) {
+
+    public static final String RESET = "reset";
+
+    // Keeps idle connections open and flushes out dead ones; never stored or replayed
+    public static final LiveEvent HEARTBEAT = new LiveEvent(-1, null, null, null);
+
+    public boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+}
@@ -0,0 +1,166 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Fans committed sale and stock changes out to every /api/events subscriber. Each event is serialized once,
+// numbered, and kept in a ring of recent events so a reconnecting client resumes from its Last-Event-ID.
+// Every subscriber has a bounded queue; one that falls too far behind is disconnected rather than slowing
+// the others down, and picks up where it left off when it reconnects.
+@Component
+@Slf4j
+public class LiveEventBroadcaster {
+
+    private final JsonMapper jsonMapper;
+    private final int maxQueued;
+    private final Counter slowSubscribers;
+
+    // Tells ids of this run apart from those handed out before a restart
+    private final long epoch = System.currentTimeMillis();
+
+    // Guarded by this, together with the subscriber set, so no subscriber misses or repeats an event
+    private final LiveEvent[] history;
+    private long lastSequence;
+
+    private final Set<Sinks.Many<LiveEvent>> subscribers = ConcurrentHashMap.newKeySet();
+
+    public LiveEventBroadcaster(
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.events.history-size:4096}") int historySize,
+            @Value("${inventory.events.max-queued:1024}") int maxQueued) {
+        
+        this.jsonMapper = jsonMapper;
+        this.maxQueued = maxQueued;
+        this.history = new LiveEvent[historySize];
+        this.slowSubscribers = Counter.builder("events.subscribers.dropped")
+                .description("Event stream subscribers disconnected for falling too far behind")
+                .register(meterRegistry);
+        Gauge.builder("events.subscribers", subscribers, Set::size)
+                .description("Open event stream subscribers")
+                .register(meterRegistry);
+    }
+
+    // Sales and manual stock changes are only broadcast once their transaction commits
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleCreated(SaleCreatedEvent event) {
+        publish("sale", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesBatchCreated(SalesBatchCreatedEvent event) {
+        publish("sales-batch", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        publish("stock", event);
+    }
+
+    // Already published after commit
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        publish("low-stock", event);
+    }
+
+    public void publish(String type, Object payload) {
+        // Serialized once, outside the lock, however many subscribers there are
+        String data = jsonMapper.writeValueAsString(payload);
+        synchronized (this) {
+            long sequence = ++lastSequence;
+            LiveEvent event = new LiveEvent(sequence, epoch + "-" + sequence, type, data);
+            history[(int) (sequence % history.length)] = event;
+            emit(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-interval:15000}")
+    public synchronized void heartbeat() {
+        emit(LiveEvent.HEARTBEAT);
+    }
+
+    // Ends open streams first, so a graceful shutdown does not wait on them
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void closeAll() {
+        subscribers.forEach(Sinks.Many::tryEmitComplete);
+        subscribers.clear();
+    }
+
+    // Events published after lastEventId, then live ones. Without lastEventId only live events are sent;
+    // when lastEventId is no longer in the history, or from before a restart, a single "reset" event
+    // tells the client to reload its state.
+    public Flux<LiveEvent> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<LiveEvent> subscriber = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(maxQueued));
+            List<LiveEvent> missed;
+            synchronized (this) {
+                missed = missedSince(lastEventId);
+                subscribers.add(subscriber);
+            }
+            // Live events queue up in the subscriber's sink while the missed ones are sent
+            return Flux.concat(Flux.fromIterable(missed), subscriber.asFlux())
+                    .doFinally(signal -> subscribers.remove(subscriber));
+        });
+    }
+
+    private void emit(LiveEvent event) {
+        for (Sinks.Many<LiveEvent> subscriber : subscribers) {
+            Sinks.EmitResult result = subscriber.tryEmitNext(event);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // Gets what is already queued, then the stream ends and the client resumes from its last event
+                subscriber.tryEmitComplete();
+                subscribers.remove(subscriber);
+                slowSubscribers.increment();
+                log.debug("Disconnected an event subscriber that fell {} events behind", maxQueued);
+            } else if (result.isFailure()) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private List<LiveEvent> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long oldest = Math.max(1, lastSequence - history.length + 1);
+        long sequence = sequenceOf(lastEventId);
+        if (sequence < oldest - 1 || sequence > lastSequence) {
+            return List.of(new LiveEvent(lastSequence, epoch + "-" + lastSequence, LiveEvent.RESET, "{}"));
+        }
+        List<LiveEvent> missed = new ArrayList<>();
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            missed.add(history[(int) (next % history.length)]);
+        }
+        return missed;
+    }
+
+    // -1 for an id of another run or one that cannot be parsed, which always triggers a reset
+    private long sequenceOf(String eventId) {
+        int separator = eventId.indexOf('-');
+        try {
+            if (separator > 0 && Long.parseLong(eventId.substring(0, separator)) == epoch) {
+                return Long.parseLong(eventId.substring(separator + 1));
+            }
+        } catch (NumberFormatException e) {
+            // treated like an id of another run
+        }
+        return -1;
+    }
+}
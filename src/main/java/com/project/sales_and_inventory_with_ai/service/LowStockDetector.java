@@ -0,0 +1,241 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import com.project.sales_and_inventory_with_ai.util.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the set of materials below their reorder point in memory. MaterialServiceImpl reports every
+// stock change while it still holds the material's row lock, so the level before and after the change
+// is exact; a LowStockEvent is published after commit only when the change crosses the reorder point.
+@Component
+@Slf4j
+public class LowStockDetector {
+
+    private final MaterialRepository materialRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BigDecimal defaultReorderPoint;
+
+    private final Map<Long, MaterialStockDTO> lowStock = new ConcurrentHashMap<>();
+
+    // Committed stock of every material. A transaction writes its changes here just before it commits,
+    // while it still holds the row locks, so the next change of a material always finds the level its
+    // predecessor left and a deduction never has to read the row back. A material whose commit could not
+    // be confirmed is dropped and read again on its next deduction.
+    private final Map<Long, MaterialStockDTO> committedStock = new ConcurrentHashMap<>();
+
+    // Changes are numbered while the row is locked, i.e. in the order the database applied them.
+    // After-commit callbacks can run in any order, so an older change never overwrites a newer one.
+    // Deleted materials keep their entry so a late callback cannot bring them back.
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Long, Long> appliedChanges = new ConcurrentHashMap<>();
+
+    public LowStockDetector(
+            MaterialRepository materialRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.low-stock.default-reorder-point:10}") BigDecimal defaultReorderPoint) {
+        
+        this.materialRepository = materialRepository;
+        this.eventPublisher = eventPublisher;
+        this.defaultReorderPoint = defaultReorderPoint;
+        Gauge.builder("inventory.low_stock.materials", lowStock, Map::size)
+                .description("Materials currently below their reorder point")
+                .register(meterRegistry);
+    }
+
+    // Once the startup data loaders have run. Numbered 0, so any change committed meanwhile wins.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (MaterialDTO material : materialRepository.findAllAsDTO()) {
+            MaterialStockDTO stock = new MaterialStockDTO(material.getId(), material.getName(), material.getUnit(),
+                    material.getQuantity(), material.getReorderPoint());
+            committedStock.putIfAbsent(material.getId(), stock);
+            apply(material.getId(), stock, 0);
+        }
+        log.info("Low-stock detector built: {} materials below their reorder point", lowStock.size());
+    }
+
+    public List<MaterialStockDTO> getLowStock() {
+        List<MaterialStockDTO> materials = new ArrayList<>(lowStock.values());
+        materials.sort(Comparator.comparing(MaterialStockDTO::getId));
+        return materials;
+    }
+
+    public BigDecimal effectiveReorderPoint(BigDecimal reorderPoint) {
+        return reorderPoint != null ? reorderPoint : defaultReorderPoint;
+    }
+
+    public boolean isLow(BigDecimal quantity, BigDecimal reorderPoint) {
+        return quantity.compareTo(effectiveReorderPoint(reorderPoint)) < 0;
+    }
+
+    // Called right after the batched UPDATE, while its row locks are held. Returns the stock it leaves behind,
+    // worked out from the committed stock; only materials not known yet are read back.
+    public List<MaterialStockDTO> stockDeducted(Map<Long, BigDecimal> quantities) {
+        PendingStock pending = pendingStock();
+        List<MaterialStockDTO> remaining = new ArrayList<>(quantities.size());
+        List<Long> unknown = new ArrayList<>();
+        quantities.forEach((id, quantity) -> {
+            MaterialStockDTO before = pending.current(id);
+            if (before == null) {
+                unknown.add(id);
+            } else {
+                remaining.add(new MaterialStockDTO(id, before.getName(), before.getUnit(),
+                        before.getQuantity().subtract(quantity), before.getReorderPoint()));
+            }
+        });
+        if (!unknown.isEmpty()) {
+            remaining.addAll(materialRepository.findStock(unknown));
+        }
+
+        for (MaterialStockDTO after : remaining) {
+            BigDecimal before = after.getQuantity().add(quantities.get(after.getId()));
+            pending.put(after.getId(), after);
+            changed(isLow(before, after.getReorderPoint()), after);
+        }
+        return remaining;
+    }
+
+    // A material created below its reorder point counts as crossing it
+    public void materialCreated(Material material) {
+        pendingStock().put(material.getId(), toStock(material));
+        changed(false, toStock(material));
+    }
+
+    // before is the row as read under its lock at the start of the update
+    public void materialUpdated(MaterialStockDTO before, Material after) {
+        pendingStock().put(after.getId(), toStock(after));
+        changed(isLow(before.getQuantity(), before.getReorderPoint()), toStock(after));
+    }
+
+    public void materialDeleted(Long materialId) {
+        pendingStock().put(materialId, null);
+        long change = changes.incrementAndGet();
+        TransactionHooks.afterCommit(() -> apply(materialId, null, change));
+    }
+
+    private void changed(boolean wasLow, MaterialStockDTO after) {
+        long change = changes.incrementAndGet();
+        boolean low = isLow(after.getQuantity(), after.getReorderPoint());
+        TransactionHooks.afterCommit(() -> {
+            // A crossing already overtaken by a newer change is not published,
+            // so the last event for a material always matches its current state
+            if (apply(after.getId(), after, change) && low != wasLow) {
+                publish(after, low ? LowStockEvent.Type.LOW : LowStockEvent.Type.RESTOCKED);
+            }
+        });
+    }
+
+    // Returns false when a newer change of this material was applied first
+    private boolean apply(Long materialId, MaterialStockDTO stock, long change) {
+        Long applied = appliedChanges.compute(materialId, (id, current) -> {
+            if (current != null && current >= change) {
+                return current;
+            }
+            if (stock != null && isLow(stock.getQuantity(), stock.getReorderPoint())) {
+                lowStock.put(id, new MaterialStockDTO(id, stock.getName(), stock.getUnit(), stock.getQuantity(),
+                        effectiveReorderPoint(stock.getReorderPoint())));
+            } else {
+                lowStock.remove(id);
+            }
+            return change;
+        });
+        return applied == change;
+    }
+
+    private void publish(MaterialStockDTO stock, LowStockEvent.Type type) {
+        BigDecimal reorderPoint = effectiveReorderPoint(stock.getReorderPoint());
+        if (type == LowStockEvent.Type.LOW) {
+            log.warn("Material {} ({}) is low: {} {} left, reorder point {}", stock.getName(), stock.getId(),
+                    stock.getQuantity(), stock.getUnit(), reorderPoint);
+        } else {
+            log.info("Material {} ({}) restocked: {} {}", stock.getName(), stock.getId(), stock.getQuantity(), stock.getUnit());
+        }
+        try {
+            eventPublisher.publishEvent(new LowStockEvent(stock.getId(), stock.getName(), stock.getUnit(),
+                    stock.getQuantity(), reorderPoint, type));
+        } catch (RuntimeException e) {
+            // The stock change is committed; a failing subscriber must not turn it into an error
+            log.warn("Low-stock subscriber failed for material {}: {}", stock.getId(), e.getMessage());
+        }
+    }
+
+    // Stock changed by the current transaction; outside a transaction changes count as committed at once
+    private PendingStock pendingStock() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingStock();
+        }
+        PendingStock pending = (PendingStock) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingStock();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private class PendingStock implements TransactionSynchronization {
+
+        // null marks a deleted material
+        private final Map<Long, MaterialStockDTO> stock = new HashMap<>();
+        private final boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        private boolean published;
+
+        MaterialStockDTO current(Long materialId) {
+            return stock.containsKey(materialId) ? stock.get(materialId) : committedStock.get(materialId);
+        }
+
+        void put(Long materialId, MaterialStockDTO after) {
+            stock.put(materialId, after);
+            if (!inTransaction) {
+                beforeCommit(false);
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stock.forEach((id, after) -> {
+                if (after == null) {
+                    committedStock.remove(id);
+                } else {
+                    committedStock.put(id, after);
+                }
+            });
+            published = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LowStockDetector.this);
+            if (published && status != STATUS_COMMITTED) {
+                stock.keySet().forEach(committedStock::remove);
+            }
+        }
+    }
+
+    private static MaterialStockDTO toStock(Material material) {
+        return new MaterialStockDTO(material.getId(), material.getName(), material.getUnit(),
+                material.getQuantity(), material.getReorderPoint());
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import java.math.BigDecimal;
+
+// Published once a committed stock change moves a material across its reorder point
+public record LowStockEvent(Long materialId, String materialName, String unit,
+                            BigDecimal quantity, BigDecimal reorderPoint, Type type) {
+
+    public enum Type {
+        LOW,        // stock fell below the reorder point
+        RESTOCKED   // stock is back at or above it
+    }
+}
@@ -1,14 +1,19 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface MaterialService {
     
     List<Material> getAllMaterials();
     
+    List<MaterialDTO> getAllMaterialDTOs();
+    
     Material getMaterialById(Long id);
     
     Material createMaterial(Material material);
@@ -19,7 +24,14 @@ public interface MaterialService {
     
     List<Material> searchMaterialsByName(String name);
     
+    List<MaterialDTO> searchMaterialDTOsByName(String name);
+    
     List<Material> getLowStockMaterials(BigDecimal threshold);
     
+    // Materials below their own reorder point, served from memory
+    List<MaterialStockDTO> getMaterialsBelowReorderPoint();
+    
     void deductStock(Long materialId, BigDecimal quantity);
+    
+    void deductStockBatch(Map<Long, BigDecimal> quantities);
 }
@@ -1,13 +1,26 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
 import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.entity.StockMovement;
 import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import com.project.sales_and_inventory_with_ai.repository.StockMovementRepository;
+import com.project.sales_and_inventory_with_ai.search.NameSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +28,13 @@ import java.util.List;
 public class MaterialServiceImpl implements MaterialService {
 
     private final MaterialRepository materialRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final RecipeCache recipeCache;
+    private final FoodItemAvailabilityIndex availabilityIndex;
+    private final LowStockDetector lowStockDetector;
+    private final NameSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -22,6 +42,12 @@ public class MaterialServiceImpl implements MaterialService {
         return materialRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<MaterialDTO> getAllMaterialDTOs() {
+        return materialRepository.findAllAsDTO();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Material getMaterialById(Long id) {
@@ -37,20 +63,56 @@ public class MaterialServiceImpl implements MaterialService {
         if (material.getPricePerUnit().compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Price per unit must be greater than zero");
         }
-        return materialRepository.save(material);
+        if (material.getReorderPoint() != null && material.getReorderPoint().signum() < 0) {
+            throw new RuntimeException("Reorder point cannot be negative");
+        }
+        Material savedMaterial = materialRepository.save(material);
+        lowStockDetector.materialCreated(savedMaterial);
+        searchIndex.materialSaved(savedMaterial.getId(), savedMaterial.getName());
+        
+        if (savedMaterial.getQuantity().signum() > 0) {
+            stockMovementRepository.save(StockMovement.of(savedMaterial.getId(), savedMaterial.getQuantity(),
+                    StockMovement.MovementType.PURCHASE));
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(savedMaterial.getId(), savedMaterial.getQuantity(),
+                savedMaterial.getQuantity()));
+        
+        return savedMaterial;
     }
 
     @Override
     public Material updateMaterial(Long id, Material material) {
+        // Locks the row so no sale deducts between this read and the commit; the cached entity may be older
+        MaterialStockDTO before = materialRepository.findStockForUpdate(id);
+        if (before == null) {
+            throw new RuntimeException("Material not found with id: " + id);
+        }
         Material existingMaterial = getMaterialById(id);
         
+        // A stock count that differs from the current quantity is recorded as an adjustment
+        BigDecimal quantityChange = material.getQuantity().subtract(before.getQuantity());
+        if (quantityChange.signum() != 0) {
+            stockMovementRepository.save(StockMovement.of(id, quantityChange, StockMovement.MovementType.ADJUSTMENT));
+        }
+        
         existingMaterial.setName(material.getName());
         existingMaterial.setUnit(material.getUnit());
         existingMaterial.setPricePerUnit(material.getPricePerUnit());
         existingMaterial.setQuantity(material.getQuantity());
         existingMaterial.setDatePurchased(material.getDatePurchased());
+        existingMaterial.setReorderPoint(material.getReorderPoint());
+        
+        // Cached recipes hold the old price per unit
+        recipeCache.invalidateMaterial(id);
+        availabilityIndex.refreshMaterials(List.of(id));
         
-        return materialRepository.save(existingMaterial);
+        Material savedMaterial = materialRepository.save(existingMaterial);
+        lowStockDetector.materialUpdated(before, savedMaterial);
+        searchIndex.materialSaved(id, savedMaterial.getName());
+        if (quantityChange.signum() != 0) {
+            eventPublisher.publishEvent(new StockChangedEvent(id, quantityChange, savedMaterial.getQuantity()));
+        }
+        return savedMaterial;
     }
 
     @Override
@@ -59,12 +121,24 @@ public class MaterialServiceImpl implements MaterialService {
             throw new RuntimeException("Material not found with id: " + id);
         }
         materialRepository.deleteById(id);
+        recipeCache.invalidateMaterial(id);
+        availabilityIndex.refreshMaterials(List.of(id));
+        lowStockDetector.materialDeleted(id);
+        searchIndex.materialDeleted(id);
+        eventPublisher.publishEvent(new StockChangedEvent(id, null, null));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Material> searchMaterialsByName(String name) {
-        return materialRepository.findByNameContainingIgnoreCase(name);
+        return NameSearchIndex.inRankOrder(searchIndex.searchMaterials(name), materialRepository::findAllById, Material::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MaterialDTO> searchMaterialDTOsByName(String name) {
+        return NameSearchIndex.inRankOrder(searchIndex.searchMaterials(name), materialRepository::findAllAsDTOByIds,
+                MaterialDTO::getId);
     }
 
     @Override
@@ -74,17 +148,61 @@ public class MaterialServiceImpl implements MaterialService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MaterialStockDTO> getMaterialsBelowReorderPoint() {
+        return lowStockDetector.getLowStock();
+    }
+
+    @Override
+    @Retryable(includes = PessimisticLockingFailureException.class,
+               maxRetriesString = "${inventory.stock.max-retries:4}",
+               delayString = "${inventory.stock.retry-delay:20}",
+               multiplier = 2, maxDelayString = "${inventory.stock.retry-max-delay:500}", jitter = 10)
     public void deductStock(Long materialId, BigDecimal quantity) {
-        Material material = getMaterialById(materialId);
-        
-        BigDecimal newQuantity = material.getQuantity().subtract(quantity);
-        if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
-            throw new RuntimeException("Insufficient stock for material: " + material.getName() + 
-                                     ". Available: " + material.getQuantity() + 
-                                     ", Required: " + quantity);
+        deductStockBatch(Map.of(materialId, quantity));
+    }
+
+    // Not retried here: it joins the caller's transaction, so only the outer method may retry
+    @Override
+    public void deductStockBatch(Map<Long, BigDecimal> quantities) {
+        if (quantities.isEmpty()) {
+            return;
         }
         
-        material.setQuantity(newQuantity);
-        materialRepository.save(material);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // One batched conditional UPDATE for every material; any shortfall rolls the whole batch back
+            List<Long> insufficient = materialRepository.deductQuantities(quantities);
+            if (!insufficient.isEmpty()) {
+                outcome = "insufficient";
+                Long materialId = insufficient.get(0);
+                Material material = getMaterialById(materialId);
+                throw new RuntimeException("Insufficient stock for material: " + material.getName() + 
+                                         ". Available: " + material.getQuantity() + 
+                                         ", Required: " + quantities.get(materialId));
+            }
+            
+            // Ledger rows are inserted in one JDBC batch at flush
+            List<StockMovement> movements = new ArrayList<>();
+            quantities.forEach((id, quantity) ->
+                    movements.add(StockMovement.of(id, quantity.negate(), StockMovement.MovementType.SALE)));
+            stockMovementRepository.saveAll(movements);
+            availabilityIndex.refreshMaterials(quantities.keySet());
+            for (MaterialStockDTO remaining : lowStockDetector.stockDeducted(quantities)) {
+                eventPublisher.publishEvent(new StockChangedEvent(remaining.getId(),
+                        quantities.get(remaining.getId()).negate(), remaining.getQuantity()));
+            }
+            outcome = "success";
+        } catch (PessimisticLockingFailureException e) {
+            // Lock wait timed out against another sale; the outer @Retryable method tries again
+            outcome = "contention";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("inventory.stock.deduct")
+                    .description("Time to deduct stock for one sale or batch, including row lock waits")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 }
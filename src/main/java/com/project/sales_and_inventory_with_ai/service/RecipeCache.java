@@ -0,0 +1,135 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import com.project.sales_and_inventory_with_ai.util.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of recipe snapshots keyed by food item id, used by the sale hot path
+// so a sale does not have to reload the recipe and its materials.
+@Component
+public class RecipeCache {
+
+    private final FoodItemRepository foodItemRepository;
+    private final int maxSize;
+    private final LinkedHashMap<Long, RecipeSnapshot> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Bumped on every invalidation so a load that raced with one is not cached
+    private long generation;
+
+    public RecipeCache(
+            FoodItemRepository foodItemRepository,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.recipe-cache.max-size:500}") int maxSize) {
+        
+        this.foodItemRepository = foodItemRepository;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RecipeSnapshot> eldest) {
+                if (size() > RecipeCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        
+        // Same counts as getStats, published next to the second-level cache regions
+        FunctionCounter.builder("recipe.cache.gets", hits, AtomicLong::get)
+                .description("Recipe lookups by the sale path")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("recipe.cache.gets", misses, AtomicLong::get)
+                .description("Recipe lookups by the sale path")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("recipe.cache.evictions", evictions, AtomicLong::get)
+                .description("Recipes dropped to stay within the maximum size")
+                .register(meterRegistry);
+        Gauge.builder("recipe.cache.size", this, RecipeCache::size)
+                .description("Recipes currently cached")
+                .register(meterRegistry);
+        Gauge.builder("recipe.cache.hit.ratio", this, RecipeCache::hitRatio)
+                .description("Share of recipe lookups served from the cache since startup")
+                .register(meterRegistry);
+    }
+
+    public RecipeSnapshot get(Long foodItemId) {
+        long loadGeneration;
+        synchronized (this) {
+            RecipeSnapshot snapshot = entries.get(foodItemId);
+            if (snapshot != null) {
+                hits.incrementAndGet();
+                return snapshot;
+            }
+            loadGeneration = generation;
+        }
+        
+        misses.incrementAndGet();
+        FoodItem foodItem = foodItemRepository.findByIdWithIngredients(foodItemId)
+                .orElseThrow(() -> new RuntimeException("Food item not found with id: " + foodItemId));
+        RecipeSnapshot snapshot = RecipeSnapshot.of(foodItem);
+        
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(foodItemId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    // Drop a recipe now and again once the surrounding transaction commits
+    public void invalidate(Long foodItemId) {
+        TransactionHooks.nowAndAfterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                entries.remove(foodItemId);
+            }
+        });
+    }
+
+    // Drop every recipe that uses the material, e.g. after its price changed
+    public void invalidateMaterial(Long materialId) {
+        TransactionHooks.nowAndAfterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                entries.values().removeIf(snapshot -> snapshot.usesMaterial(materialId));
+            }
+        });
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", hitRatio());
+        return stats;
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable copy of a recipe with just what a sale needs to price and deduct stock
+@Value
+public class RecipeSnapshot {
+    
+    Long foodItemId;
+    
+    String foodItemName;
+    
+    BigDecimal pricePerServing;
+    
+    List<Line> lines;
+
+    @Value
+    public static class Line {
+        Long materialId;
+        BigDecimal quantityRequired;
+        BigDecimal pricePerUnit;
+    }
+
+    public static RecipeSnapshot of(FoodItem foodItem) {
+        List<Line> lines = new ArrayList<>(foodItem.getIngredients().size());
+        for (Ingredient ingredient : foodItem.getIngredients()) {
+            lines.add(new Line(
+                    ingredient.getMaterial().getId(),
+                    ingredient.getQuantityRequired(),
+                    ingredient.getMaterial().getPricePerUnit()));
+        }
+        return new RecipeSnapshot(foodItem.getId(), foodItem.getName(), foodItem.getPricePerServing(), List.copyOf(lines));
+    }
+
+    public boolean usesMaterial(Long materialId) {
+        for (Line line : lines) {
+            if (line.getMaterialId().equals(materialId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Detached food item carrying only the id and display fields, enough to reference from a sale
+    public FoodItem toFoodItemReference() {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(foodItemId);
+        foodItem.setName(foodItemName);
+        foodItem.setPricePerServing(pricePerServing);
+        return foodItem;
+    }
+}
@@ -14,4 +14,7 @@ public interface ReportService {
     List<Map<String, Object>> getTopSellingItems(String period, int limit);
     
     Map<String, Object> getSalesSummary(String period);
+    
+    Map<String, Object> getSalesTimeSeries(LocalDateTime from, LocalDateTime to, String bucket, 
+                                           List<String> metrics, Long foodItemId);
 }
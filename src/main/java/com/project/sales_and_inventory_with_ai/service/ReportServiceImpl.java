@@ -1,80 +1,305 @@
 package com.project.sales_and_inventory_with_ai.service;
 
 import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
 import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ReportServiceImpl implements ReportService {
 
+    // Time-series metrics, in the order their totals are kept per bucket
+    private static final List<String> METRICS = List.of("qty", "revenue", "profit");
+
     private final SaleRepository saleRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
     private final MaterialService materialService;
+    private final LowStockDetector lowStockDetector;
+    private final MeterRegistry meterRegistry;
+    private final int maxBuckets;
+
+    public ReportServiceImpl(SaleRepository saleRepository,
+                             DailySalesRollupRepository dailySalesRollupRepository,
+                             MaterialService materialService,
+                             LowStockDetector lowStockDetector,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.reports.timeseries.max-buckets:2000}") int maxBuckets) {
+        this.saleRepository = saleRepository;
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.materialService = materialService;
+        this.lowStockDetector = lowStockDetector;
+        this.meterRegistry = meterRegistry;
+        this.maxBuckets = maxBuckets;
+    }
 
     @Override
     public BigDecimal getTotalProfit(String period) {
-        LocalDateTime[] dateRange = getDateRangeForPeriod(period);
-        return saleRepository.calculateTotalProfit(dateRange[0], dateRange[1]);
+        return timed("totalProfit", () -> {
+            LocalDateTime[] dateRange = getDateRangeForPeriod(period);
+            return calculateTotalProfit(dateRange[0], dateRange[1]);
+        });
     }
 
     @Override
     public Map<String, Object> getMaterialsStockReport(BigDecimal lowStockThreshold) {
-        List<Material> allMaterials = materialService.getAllMaterials();
-        List<Material> lowStockMaterials = materialService.getLowStockMaterials(
-                lowStockThreshold != null ? lowStockThreshold : BigDecimal.TEN
-        );
-        
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalMaterials", allMaterials.size());
-        report.put("lowStockCount", lowStockMaterials.size());
-        report.put("materials", allMaterials);
-        report.put("lowStockMaterials", lowStockMaterials);
-        report.put("lowStockThreshold", lowStockThreshold != null ? lowStockThreshold : BigDecimal.TEN);
-        
-        return report;
+        return timed("stockReport", () -> {
+            // One read: low stock is judged against the same rows, by the given threshold or else each material's reorder point
+            List<Material> allMaterials = materialService.getAllMaterials();
+            List<Material> lowStockMaterials = allMaterials.stream()
+                    .filter(material -> lowStockThreshold != null
+                            ? material.getQuantity().compareTo(lowStockThreshold) < 0
+                            : lowStockDetector.isLow(material.getQuantity(), material.getReorderPoint()))
+                    .toList();
+            
+            Map<String, Object> report = new HashMap<>();
+            report.put("totalMaterials", allMaterials.size());
+            report.put("lowStockCount", lowStockMaterials.size());
+            report.put("materials", allMaterials);
+            report.put("lowStockMaterials", lowStockMaterials);
+            report.put("lowStockThreshold", lowStockThreshold);
+            
+            return report;
+        });
     }
 
     @Override
     public List<Map<String, Object>> getTopSellingItems(String period, int limit) {
-        LocalDateTime[] dateRange = getDateRangeForPeriod(period);
-        List<Object[]> results = saleRepository.findTopSellingItems(dateRange[0], dateRange[1]);
-        
-        return results.stream()
-                .limit(limit > 0 ? limit : 10)
-                .map(result -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("foodItemId", result[0]);
-                    item.put("foodItemName", result[1]);
-                    item.put("totalQuantitySold", result[2]);
-                    return item;
-                })
-                .collect(Collectors.toList());
+        return timed("topSellingItems", () -> {
+            LocalDateTime[] dateRange = getDateRangeForPeriod(period);
+            List<Object[]> results = findTopSellingItems(dateRange[0], dateRange[1]);
+            
+            return results.stream()
+                    .limit(limit > 0 ? limit : 10)
+                    .map(result -> {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("foodItemId", result[0]);
+                        item.put("foodItemName", result[1]);
+                        item.put("totalQuantitySold", result[2]);
+                        return item;
+                    })
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
     public Map<String, Object> getSalesSummary(String period) {
-        LocalDateTime[] dateRange = getDateRangeForPeriod(period);
+        return timed("salesSummary", () -> {
+            LocalDateTime[] dateRange = getDateRangeForPeriod(period);
+            
+            BigDecimal totalProfit = calculateTotalProfit(dateRange[0], dateRange[1]);
+            BigDecimal totalRevenue = calculateTotalRevenue(dateRange[0], dateRange[1]);
+            
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("period", period);
+            summary.put("startDate", dateRange[0]);
+            summary.put("endDate", dateRange[1]);
+            summary.put("totalProfit", totalProfit);
+            summary.put("totalRevenue", totalRevenue);
+            summary.put("totalCost", totalRevenue.subtract(totalProfit));
+            
+            return summary;
+        });
+    }
+
+    @Override
+    public Map<String, Object> getSalesTimeSeries(LocalDateTime from, LocalDateTime to, String bucket,
+                                                  List<String> metrics, Long foodItemId) {
+        return timed("salesTimeSeries", () -> {
+            LocalDateTime endDate = to != null ? to : LocalDateTime.now();
+            if (from == null || !from.isBefore(endDate)) {
+                throw new RuntimeException("'from' must be before 'to'");
+            }
+            String unit = bucket != null ? bucket.toLowerCase() : "day";
+            List<String> selected = parseMetrics(metrics);
+            
+            // Every bucket is laid out first so buckets without sales still report zero
+            Map<LocalDateTime, BigDecimal[]> buckets = new LinkedHashMap<>();
+            for (LocalDateTime start = bucketStart(from, unit); start.isBefore(endDate); start = nextBucket(start, unit)) {
+                if (buckets.size() == maxBuckets) {
+                    throw new RuntimeException("Too many buckets (at most " + maxBuckets + "). Use a shorter range or a larger bucket");
+                }
+                buckets.put(start, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+            }
+            
+            // Hourly buckets come from one grouped scan of sales; day and week buckets take whole days
+            // from the daily rollup and only group the partial first and last day from sales
+            LocalDate[] fullDays = "hour".equals(unit) ? null : getFullDays(from, endDate);
+            if (fullDays == null) {
+                addSalesTotals(buckets, unit, from, endDate, foodItemId);
+            } else {
+                addSalesTotals(buckets, unit, from, fullDays[0].atStartOfDay(), foodItemId);
+                for (Object[] row : dailySalesRollupRepository.findDailyTotals(fullDays[0], fullDays[1], foodItemId)) {
+                    addTotals(buckets, bucketStart(((LocalDate) row[0]).atStartOfDay(), unit), row, 1);
+                }
+                addSalesTotals(buckets, unit, fullDays[1].plusDays(1).atStartOfDay(), endDate, foodItemId);
+            }
+            
+            List<Map<String, Object>> points = new ArrayList<>(buckets.size());
+            buckets.forEach((start, totals) -> {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("start", start);
+                for (String metric : selected) {
+                    point.put(metric, totals[METRICS.indexOf(metric)]);
+                }
+                points.add(point);
+            });
+            
+            Map<String, Object> series = new HashMap<>();
+            series.put("from", from);
+            series.put("to", endDate);
+            series.put("bucket", unit);
+            series.put("metrics", selected);
+            series.put("foodItemId", foodItemId);
+            series.put("points", points);
+            
+            return series;
+        });
+    }
+
+    private <T> T timed(String query, Supplier<T> report) {
+        return Timer.builder("reports.query")
+                .description("Time to build one report")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(report);
+    }
+
+    // Whole days in the range come from the daily rollup; only the partial first and last day scan sales
+    private BigDecimal calculateTotalProfit(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate[] fullDays = getFullDays(startDate, endDate);
+        if (fullDays == null) {
+            return saleRepository.calculateTotalProfit(startDate, endDate);
+        }
+        
+        return saleRepository.calculateTotalProfitExclusive(startDate, fullDays[0].atStartOfDay())
+                .add(dailySalesRollupRepository.calculateTotalProfit(fullDays[0], fullDays[1]))
+                .add(saleRepository.calculateTotalProfit(fullDays[1].plusDays(1).atStartOfDay(), endDate));
+    }
+
+    private BigDecimal calculateTotalRevenue(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate[] fullDays = getFullDays(startDate, endDate);
+        if (fullDays == null) {
+            return saleRepository.calculateTotalRevenue(startDate, endDate);
+        }
+        
+        return saleRepository.calculateTotalRevenueExclusive(startDate, fullDays[0].atStartOfDay())
+                .add(dailySalesRollupRepository.calculateTotalRevenue(fullDays[0], fullDays[1]))
+                .add(saleRepository.calculateTotalRevenue(fullDays[1].plusDays(1).atStartOfDay(), endDate));
+    }
+
+    private List<Object[]> findTopSellingItems(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate[] fullDays = getFullDays(startDate, endDate);
+        if (fullDays == null) {
+            return saleRepository.findTopSellingItems(startDate, endDate);
+        }
+        
+        // Merge quantities per food item across the three parts, then re-rank
+        Map<Object, Object[]> merged = new LinkedHashMap<>();
+        List<Object[]> parts = new ArrayList<>();
+        parts.addAll(saleRepository.findTopSellingItemsExclusive(startDate, fullDays[0].atStartOfDay()));
+        parts.addAll(dailySalesRollupRepository.findTopSellingItems(fullDays[0], fullDays[1]));
+        parts.addAll(saleRepository.findTopSellingItems(fullDays[1].plusDays(1).atStartOfDay(), endDate));
+        
+        for (Object[] row : parts) {
+            merged.merge(row[0], new Object[]{row[0], row[1], row[2]}, (a, b) -> 
+                    new Object[]{a[0], a[1], ((BigDecimal) a[2]).add((BigDecimal) b[2])});
+        }
         
-        BigDecimal totalProfit = saleRepository.calculateTotalProfit(dateRange[0], dateRange[1]);
-        BigDecimal totalRevenue = saleRepository.calculateTotalRevenue(dateRange[0], dateRange[1]);
+        return merged.values().stream()
+                .sorted((a, b) -> ((BigDecimal) b[2]).compareTo((BigDecimal) a[2]))
+                .collect(Collectors.toList());
+    }
+
+    private void addSalesTotals(Map<LocalDateTime, BigDecimal[]> buckets, String unit,
+                                LocalDateTime startDate, LocalDateTime endDate, Long foodItemId) {
+        if (!startDate.isBefore(endDate)) {
+            return;
+        }
+        for (Object[] row : saleRepository.findHourlyTotals(startDate, endDate, foodItemId)) {
+            LocalDateTime hour = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            addTotals(buckets, bucketStart(hour, unit), row, 4);
+        }
+    }
+
+    // Adds quantity, revenue and profit found at row[offset..offset + 2] to the bucket
+    private void addTotals(Map<LocalDateTime, BigDecimal[]> buckets, LocalDateTime start, Object[] row, int offset) {
+        BigDecimal[] totals = buckets.get(start);
+        if (totals == null) {
+            return;
+        }
+        for (int i = 0; i < totals.length; i++) {
+            if (row[offset + i] != null) {
+                totals[i] = totals[i].add((BigDecimal) row[offset + i]);
+            }
+        }
+    }
+
+    private List<String> parseMetrics(List<String> metrics) {
+        if (metrics == null || metrics.isEmpty()) {
+            return METRICS;
+        }
         
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("period", period);
-        summary.put("startDate", dateRange[0]);
-        summary.put("endDate", dateRange[1]);
-        summary.put("totalProfit", totalProfit);
-        summary.put("totalRevenue", totalRevenue);
-        summary.put("totalCost", totalRevenue.subtract(totalProfit));
+        Set<String> selected = new LinkedHashSet<>();
+        for (String metric : metrics) {
+            String name = metric.trim().toLowerCase();
+            if (!METRICS.contains(name)) {
+                throw new RuntimeException("Invalid metric. Valid values: revenue, profit, qty");
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime time, String unit) {
+        switch (unit) {
+            case "hour":
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case "day":
+                return time.truncatedTo(ChronoUnit.DAYS);
+            case "week":
+                return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            default:
+                throw new RuntimeException("Invalid bucket. Valid values: hour, day, week");
+        }
+    }
+
+    private LocalDateTime nextBucket(LocalDateTime start, String unit) {
+        switch (unit) {
+            case "hour":
+                return start.plusHours(1);
+            case "day":
+                return start.plusDays(1);
+            default:
+                return start.plusWeeks(1);
+        }
+    }
+
+    // Returns the first and last whole day inside the range, or null when there is none.
+    // The end day is never whole: period ranges end now, and a time-series end is exclusive.
+    private LocalDate[] getFullDays(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastDay = endDate.toLocalDate().minusDays(1);
         
-        return summary;
+        return firstDay.isAfter(lastDay) ? null : new LocalDate[]{firstDay, lastDay};
     }
 
     private LocalDateTime[] getDateRangeForPeriod(String period) {
@@ -0,0 +1,22 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleBatchResult {
+    
+    private List<Sale> createdSales = new ArrayList<>();
+    
+    // Error message per rejected item, keyed by its position in the batch
+    private Map<Integer, String> errors = new LinkedHashMap<>();
+}
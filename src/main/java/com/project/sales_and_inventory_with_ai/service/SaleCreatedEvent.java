@@ -0,0 +1,16 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published inside the sale's transaction; listeners that need it committed use @TransactionalEventListener
+public record SaleCreatedEvent(Long saleId, Long foodItemId, BigDecimal quantitySold,
+                               BigDecimal salePrice, BigDecimal profit, LocalDateTime saleDate) {
+
+    public static SaleCreatedEvent of(Sale sale) {
+        return new SaleCreatedEvent(sale.getId(), sale.getFoodItem().getId(), sale.getQuantitySold(),
+                sale.getSalePrice(), sale.getProfit(), sale.getSaleDate());
+    }
+}
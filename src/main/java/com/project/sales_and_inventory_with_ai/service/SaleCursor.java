@@ -0,0 +1,38 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in the sales list (newest first): the last sale a client has already seen
+@Value
+public class SaleCursor {
+
+    LocalDateTime saleDate;
+    Long id;
+
+    public static SaleCursor of(SaleDTO sale) {
+        return new SaleCursor(sale.getSaleDate(), sale.getId());
+    }
+
+    // Opaque to clients; they only echo it back in the "after" parameter
+    public String encode() {
+        String raw = saleDate + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SaleCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new SaleCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                  Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SaleService {
     
@@ -13,7 +15,13 @@ public interface SaleService {
     
     Sale createSale(Sale sale);
     
+    SaleBatchResult createSales(List<Sale> sales);
+    
     List<Sale> getSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     
     List<Sale> getSalesByFoodItem(Long foodItemId);
+    
+    List<SaleDTO> getSalesPage(LocalDateTime startDate, LocalDateTime endDate, SaleCursor after, int limit);
+    
+    void streamSales(LocalDateTime startDate, LocalDateTime endDate, Consumer<SaleDTO> consumer);
 }
@@ -1,16 +1,36 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
 import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -18,8 +38,13 @@ import java.util.List;
 public class SaleServiceImpl implements SaleService {
 
     private final SaleRepository saleRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
     private final FoodItemService foodItemService;
     private final MaterialService materialService;
+    private final MaterialRepository materialRepository;
+    private final RecipeCache recipeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -35,36 +60,190 @@ public class SaleServiceImpl implements SaleService {
     }
 
     @Override
+    @Retryable(includes = PessimisticLockingFailureException.class,
+               maxRetriesString = "${inventory.stock.max-retries:4}",
+               delayString = "${inventory.stock.retry-delay:20}",
+               multiplier = 2, maxDelayString = "${inventory.stock.retry-max-delay:500}", jitter = 10)
     public Sale createSale(Sale sale) {
-        // Validate sale data
-        if (sale.getQuantitySold().compareTo(BigDecimal.ZERO) <= 0) {
+        // Timed per attempt, so contention that is retried shows up on its own
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            validateSale(sale);
+            
+            // Get the recipe from the cache; only a miss queries the food item and its ingredients
+            RecipeSnapshot recipe = phase("recipe", () -> recipeCache.get(sale.getFoodItem().getId()));
+            
+            // Calculate cost of ingredients and collect the stock to deduct per material
+            Map<Long, BigDecimal> deductions = priceSale(sale, recipe);
+            
+            // Deduct stock for all ingredients in a single batch
+            phase("deduct", () -> materialService.deductStockBatch(deductions));
+            recordDeductions(deductions);
+            
+            Sale savedSale = phase("save", () -> saleRepository.save(sale));
+            phase("rollup", () -> dailySalesRollupRepository.addSales(List.of(savedSale)));
+            eventPublisher.publishEvent(SaleCreatedEvent.of(savedSale));
+            
+            outcome = "success";
+            return savedSale;
+        } catch (PessimisticLockingFailureException e) {
+            outcome = "contention";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("sales.create")
+                    .description("Time to record one sale, per attempt")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    @Retryable(includes = PessimisticLockingFailureException.class,
+               maxRetriesString = "${inventory.stock.max-retries:4}",
+               delayString = "${inventory.stock.retry-delay:20}",
+               multiplier = 2, maxDelayString = "${inventory.stock.retry-max-delay:500}", jitter = 10)
+    public SaleBatchResult createSales(List<Sale> sales) {
+        SaleBatchResult result = new SaleBatchResult();
+        
+        // Load every recipe referenced by the batch in one query
+        Set<Long> foodItemIds = new HashSet<>();
+        for (Sale sale : sales) {
+            if (sale.getFoodItem() != null && sale.getFoodItem().getId() != null) {
+                foodItemIds.add(sale.getFoodItem().getId());
+            }
+        }
+        Map<Long, FoodItem> foodItems = new HashMap<>();
+        for (FoodItem foodItem : foodItemService.getFoodItemsByIds(foodItemIds)) {
+            foodItems.put(foodItem.getId(), foodItem);
+        }
+        
+        // Track stock in memory so a sale that would oversell is rejected on its own. It starts from one read
+        // of current stock: the loaded materials may come from the second-level cache and be out of date.
+        Set<Long> materialIds = new HashSet<>();
+        for (FoodItem foodItem : foodItems.values()) {
+            materialIds.addAll(materialsOf(foodItem).keySet());
+        }
+        Map<Long, BigDecimal> remainingStock = new HashMap<>();
+        if (!materialIds.isEmpty()) {
+            for (MaterialStockDTO stock : materialRepository.findStock(materialIds)) {
+                remainingStock.put(stock.getId(), stock.getQuantity());
+            }
+        }
+        Map<Long, BigDecimal> totalDeductions = new LinkedHashMap<>();
+        List<Sale> accepted = new ArrayList<>();
+        
+        for (int i = 0; i < sales.size(); i++) {
+            Sale sale = sales.get(i);
+            try {
+                validateSale(sale);
+                
+                FoodItem foodItem = foodItems.get(sale.getFoodItem().getId());
+                if (foodItem == null) {
+                    throw new RuntimeException("Food item not found with id: " + sale.getFoodItem().getId());
+                }
+                
+                Map<Long, BigDecimal> deductions = priceSale(sale, RecipeSnapshot.of(foodItem));
+                Map<Long, Material> materials = materialsOf(foodItem);
+                
+                for (Map.Entry<Long, BigDecimal> deduction : deductions.entrySet()) {
+                    Material material = materials.get(deduction.getKey());
+                    BigDecimal available = remainingStock.getOrDefault(material.getId(), BigDecimal.ZERO);
+                    if (available.compareTo(deduction.getValue()) < 0) {
+                        throw new RuntimeException("Insufficient stock for material: " + material.getName() + 
+                                                 ". Available: " + available + 
+                                                 ", Required: " + deduction.getValue());
+                    }
+                }
+                
+                deductions.forEach((materialId, quantity) -> {
+                    remainingStock.merge(materialId, quantity.negate(), BigDecimal::add);
+                    totalDeductions.merge(materialId, quantity, BigDecimal::add);
+                });
+                accepted.add(sale);
+                
+            } catch (RuntimeException e) {
+                result.getErrors().put(i, e.getMessage());
+            }
+        }
+        
+        // One stock deduction for the whole batch; a concurrent shortfall rolls the batch back and the
+        // caller retries its sales one at a time
+        materialService.deductStockBatch(totalDeductions);
+        
+        // Inserted with JDBC batching (sequence ids + hibernate.jdbc.batch_size)
+        result.setCreatedSales(saleRepository.saveAll(accepted));
+        dailySalesRollupRepository.addSales(result.getCreatedSales());
+        if (!result.getCreatedSales().isEmpty()) {
+            eventPublisher.publishEvent(SalesBatchCreatedEvent.of(result.getCreatedSales()));
+        }
+        
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Sale> getSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return saleRepository.findBySaleDateBetween(startDate, endDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Sale> getSalesByFoodItem(Long foodItemId) {
+        return saleRepository.findByFoodItemId(foodItemId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SaleDTO> getSalesPage(LocalDateTime startDate, LocalDateTime endDate, SaleCursor after, int limit) {
+        if (after == null) {
+            return saleRepository.findFirstPage(startDate, endDate, Limit.of(limit));
+        }
+        return saleRepository.findPageAfter(startDate, endDate, after.getSaleDate(), after.getId(), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSales(LocalDateTime startDate, LocalDateTime endDate, Consumer<SaleDTO> consumer) {
+        // DTO rows are never managed, so the persistence context stays empty however long the export runs
+        try (Stream<SaleDTO> sales = saleRepository.streamSales(startDate, endDate)) {
+            sales.forEach(consumer);
+        }
+    }
+
+    private void validateSale(Sale sale) {
+        if (sale.getFoodItem() == null || sale.getFoodItem().getId() == null) {
+            throw new RuntimeException("Food item ID is required");
+        }
+        if (sale.getQuantitySold() == null || sale.getQuantitySold().compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Quantity sold must be greater than zero");
         }
-        if (sale.getSalePrice().compareTo(BigDecimal.ZERO) <= 0) {
+        if (sale.getSalePrice() == null || sale.getSalePrice().compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Sale price must be greater than zero");
         }
-        
-        // Get food item with ingredients
-        FoodItem foodItem = foodItemService.getFoodItemById(sale.getFoodItem().getId());
-        sale.setFoodItem(foodItem);
+    }
+
+    // Sets food item, date, cost and profit on the sale and returns the stock to deduct per material
+    private Map<Long, BigDecimal> priceSale(Sale sale, RecipeSnapshot recipe) {
+        // A retried attempt must insert again, not merge the id of a rolled-back one
+        sale.setId(null);
+        sale.setFoodItem(recipe.toFoodItemReference());
         
         // Set sale date if not provided
         if (sale.getSaleDate() == null) {
             sale.setSaleDate(LocalDateTime.now());
         }
         
-        // Calculate cost of ingredients and deduct stock
         BigDecimal totalCost = BigDecimal.ZERO;
+        Map<Long, BigDecimal> deductions = new LinkedHashMap<>();
         
-        for (Ingredient ingredient : foodItem.getIngredients()) {
+        for (RecipeSnapshot.Line line : recipe.getLines()) {
             // Calculate quantity needed for this sale
-            BigDecimal quantityNeeded = ingredient.getQuantityRequired().multiply(sale.getQuantitySold());
-            
-            // Deduct stock
-            materialService.deductStock(ingredient.getMaterial().getId(), quantityNeeded);
+            BigDecimal quantityNeeded = line.getQuantityRequired().multiply(sale.getQuantitySold());
+            deductions.merge(line.getMaterialId(), quantityNeeded, BigDecimal::add);
             
             // Calculate cost
-            BigDecimal ingredientCost = ingredient.getMaterial().getPricePerUnit().multiply(quantityNeeded);
+            BigDecimal ingredientCost = line.getPricePerUnit().multiply(quantityNeeded);
             totalCost = totalCost.add(ingredientCost);
         }
         
@@ -75,18 +254,37 @@ public class SaleServiceImpl implements SaleService {
         BigDecimal profit = totalRevenue.subtract(totalCost);
         sale.setProfit(profit);
         
-        return saleRepository.save(sale);
+        return deductions;
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<Sale> getSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return saleRepository.findBySaleDateBetween(startDate, endDate);
+    private <T> T phase(String name, Supplier<T> step) {
+        return phaseTimer(name).record(step);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<Sale> getSalesByFoodItem(Long foodItemId) {
-        return saleRepository.findByFoodItemId(foodItemId);
+    private void phase(String name, Runnable step) {
+        phaseTimer(name).record(step);
+    }
+
+    private Timer phaseTimer(String name) {
+        return Timer.builder("sales.create.phase")
+                .description("Time spent in each step of recording a sale")
+                .tag("phase", name)
+                .register(meterRegistry);
+    }
+
+    // How much stock sales use up and how many ingredients a sale touches. Not tagged per material: that would
+    // add a series for every material ever sold; the per-material breakdown is in the stock movement ledger.
+    private void recordDeductions(Map<Long, BigDecimal> deductions) {
+        meterRegistry.summary("sales.create.ingredients").record(deductions.size());
+        BigDecimal total = deductions.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        meterRegistry.counter("sales.ingredient.deducted").increment(total.doubleValue());
+    }
+
+    private Map<Long, Material> materialsOf(FoodItem foodItem) {
+        Map<Long, Material> materials = new HashMap<>();
+        for (Ingredient ingredient : foodItem.getIngredients()) {
+            materials.put(ingredient.getMaterial().getId(), ingredient.getMaterial());
+        }
+        return materials;
     }
 }
@@ -0,0 +1,21 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// One summary for a bulk upload instead of an event per sale.
+// salePrice is per unit, so revenue is price x quantity to match how profit is computed.
+public record SalesBatchCreatedEvent(int count, BigDecimal revenue, BigDecimal profit) {
+
+    public static SalesBatchCreatedEvent of(List<Sale> sales) {
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal profit = BigDecimal.ZERO;
+        for (Sale sale : sales) {
+            revenue = revenue.add(sale.getSalePrice().multiply(sale.getQuantitySold()));
+            profit = profit.add(sale.getProfit());
+        }
+        return new SalesBatchCreatedEvent(sales.size(), revenue, profit);
+    }
+}
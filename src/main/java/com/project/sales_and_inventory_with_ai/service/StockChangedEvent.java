@@ -0,0 +1,8 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import java.math.BigDecimal;
+
+// Published inside the transaction that changed the stock. quantity is the level left behind;
+// both amounts are null once the material is deleted.
+public record StockChangedEvent(Long materialId, BigDecimal quantityChange, BigDecimal quantity) {
+}
@@ -0,0 +1,34 @@
+package com.project.sales_and_inventory_with_ai.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Work that in-memory state (caches, indexes) must only see once the data it mirrors is committed
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs the action once the surrounding transaction commits, never if it rolls back; right away outside one
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Runs the action now and again once the surrounding transaction commits, for invalidations that must
+    // also cover a stale copy another transaction put back in between
+    public static void nowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(action);
+        }
+    }
+}
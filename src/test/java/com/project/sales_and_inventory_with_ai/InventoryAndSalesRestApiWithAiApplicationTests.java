@@ -2,8 +2,10 @@ package com.project.sales_and_inventory_with_ai;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class InventoryAndSalesRestApiWithAiApplicationTests {
 
 	@Test
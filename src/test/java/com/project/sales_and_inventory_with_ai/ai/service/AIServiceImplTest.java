@@ -0,0 +1,224 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatRequest;
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatResponse;
+import com.project.sales_and_inventory_with_ai.ai.dto.ChatStreamEvent;
+import com.project.sales_and_inventory_with_ai.service.FoodItemService;
+import com.project.sales_and_inventory_with_ai.service.MaterialService;
+import com.project.sales_and_inventory_with_ai.service.ReportService;
+import com.project.sales_and_inventory_with_ai.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIServiceImplTest {
+
+    private static final String PROFIT_REPLY =
+            "{\"action\":\"VIEW_PROFIT\",\"parameters\":{\"period\":\"today\"},\"message\":\"Eto ang kita mo\",\"needsMoreInfo\":false}";
+
+    @Mock
+    private OllamaService ollamaService;
+
+    @Mock
+    private OllamaHealthMonitor healthMonitor;
+
+    @Mock
+    private AiRequestLimiter requestLimiter;
+
+    @Spy
+    private AiIntentRouter intentRouter = new AiIntentRouter(0.8);
+
+    @Spy
+    private AiResponseCache responseCache = new AiResponseCache(16, Duration.ofMinutes(5), Clock.systemUTC());
+
+    @Mock
+    private MaterialService materialService;
+
+    @Mock
+    private FoodItemService foodItemService;
+
+    @Mock
+    private SaleService saleService;
+
+    @Mock
+    private ReportService reportService;
+
+    @Spy
+    private ModelReplyParser replyParser = new ModelReplyParser(JsonMapper.builder().build());
+
+    @InjectMocks
+    private AIServiceImpl aiService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(healthMonitor.isAvailable()).thenReturn(true);
+        lenient().when(requestLimiter.submit(any())).thenAnswer(invocation -> {
+            Supplier<Mono<String>> task = invocation.getArgument(0);
+            return task.get();
+        });
+    }
+
+    @Test
+    void processMessage_WhenAskedAgain_ShouldReuseInterpretationWithFreshData() {
+        // Arrange
+        when(ollamaService.chat(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(Mono.just(PROFIT_REPLY));
+        when(reportService.getSalesSummary("today"))
+                .thenReturn(Map.of("totalProfit", 100))
+                .thenReturn(Map.of("totalProfit", 250));
+
+        // Act
+        ChatResponse first = aiService.processMessage(new ChatRequest("kumusta ang negosyo natin today?", null)).block();
+        ChatResponse second = aiService.processMessage(new ChatRequest("Kumusta ang negosyo natin today", null)).block();
+
+        // Assert
+        assertEquals("VIEW_PROFIT", second.getAction());
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(Map.of("totalProfit", 250), second.getData());
+        verify(ollamaService, times(1)).chat(eq(OllamaRole.CLASSIFY), anyString(), anyString());
+        verify(reportService, times(2)).getSalesSummary("today");
+        assertEquals(1L, responseCache.getStats().get("hits"));
+    }
+
+    @Test
+    void processMessage_ShouldSendTheSameSystemPromptAndOnlyTheUserMessageAsPrompt() {
+        // Arrange
+        String reply = "{\"action\":\"ADD_MATERIAL\",\"parameters\":{},\"message\":\"Magkano po?\",\"needsMoreInfo\":true}";
+        when(ollamaService.chat(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(Mono.just(reply));
+        ArgumentCaptor<String> systems = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> prompts = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        aiService.processMessage(new ChatRequest("bumili ako ng 10 eggs", null)).block();
+        aiService.processMessage(new ChatRequest("bumili ako ng 3 kilo ng asukal", null)).block();
+
+        // Assert
+        verify(ollamaService, times(2)).chat(eq(OllamaRole.CLASSIFY), systems.capture(), prompts.capture());
+        assertSame(AIServiceImpl.SYSTEM_PROMPT, systems.getAllValues().get(0));
+        assertSame(AIServiceImpl.SYSTEM_PROMPT, systems.getAllValues().get(1));
+        assertFalse(AIServiceImpl.SYSTEM_PROMPT.contains("asukal"));
+        assertEquals(List.of("User message: bumili ako ng 10 eggs\nResponse (JSON only):",
+                "User message: bumili ako ng 3 kilo ng asukal\nResponse (JSON only):"), prompts.getAllValues());
+    }
+
+    @Test
+    void processMessage_WhenModelAsksForMoreInfo_ShouldNotCache() {
+        // Arrange
+        String reply = "{\"action\":\"VIEW_PROFIT\",\"parameters\":{},\"message\":\"Anong araw po?\",\"needsMoreInfo\":true}";
+        when(ollamaService.chat(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(Mono.just(reply));
+
+        // Act
+        aiService.processMessage(new ChatRequest("kumusta ang negosyo?", null)).block();
+        aiService.processMessage(new ChatRequest("kumusta ang negosyo?", null)).block();
+
+        // Assert
+        verify(ollamaService, times(2)).chat(eq(OllamaRole.CLASSIFY), anyString(), anyString());
+        verify(reportService, never()).getSalesSummary(anyString());
+    }
+
+    @Test
+    void processMessage_WhenActionFails_ShouldNotCache() {
+        // Arrange
+        when(ollamaService.chat(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(Mono.just(PROFIT_REPLY));
+        when(reportService.getSalesSummary("today"))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(Map.of("totalProfit", 100));
+
+        // Act
+        ChatResponse failed = aiService.processMessage(new ChatRequest("kumusta ang negosyo natin today?", null)).block();
+        ChatResponse retried = aiService.processMessage(new ChatRequest("kumusta ang negosyo natin today?", null)).block();
+
+        // Assert
+        assertEquals("Error: Database unavailable", failed.getData());
+        assertEquals(Map.of("totalProfit", 100), retried.getData());
+        verify(ollamaService, times(2)).chat(eq(OllamaRole.CLASSIFY), anyString(), anyString());
+    }
+
+    @Test
+    void processMessage_WithKeywordQuestion_ShouldAnswerWithoutModelEvenWhenOllamaIsDown() {
+        // Arrange
+        lenient().when(healthMonitor.isAvailable()).thenReturn(false);
+        when(reportService.getSalesSummary("week")).thenReturn(Map.of("totalProfit", 900));
+
+        // Act
+        ChatResponse response = aiService.processMessage(new ChatRequest("magkano kinita ko ngayong linggo?", null)).block();
+
+        // Assert
+        assertEquals("VIEW_PROFIT", response.getAction());
+        assertEquals(Map.of("totalProfit", 900), response.getData());
+        verifyNoInteractions(ollamaService, requestLimiter);
+    }
+
+    @Test
+    void processMessage_WhenOllamaIsDownAndModelIsNeeded_ShouldFailAsUnavailable() {
+        // Arrange
+        when(healthMonitor.isAvailable()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AiUnavailableException.class, () ->
+            aiService.processMessage(new ChatRequest("bumili ako ng 10 eggs", null)).block());
+        verifyNoInteractions(ollamaService);
+    }
+
+    @Test
+    void processMessage_WhenReplyIsFencedWithTextAround_ShouldStillRunAction() {
+        // Arrange
+        String reply = "Sige po!\n```json\n" + PROFIT_REPLY + "\n```\nMay iba pa po ba?";
+        when(ollamaService.chat(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(Mono.just(reply));
+        when(reportService.getSalesSummary("today")).thenReturn(Map.of("totalProfit", 100));
+
+        // Act
+        ChatResponse response = aiService.processMessage(new ChatRequest("kumusta ang negosyo natin today?", null)).block();
+
+        // Assert
+        assertEquals("VIEW_PROFIT", response.getAction());
+        assertEquals("Eto ang kita mo", response.getMessage());
+        assertEquals(Map.of("totalProfit", 100), response.getData());
+    }
+
+    @Test
+    void streamMessage_ShouldStopGeneratingOnceJsonObjectCloses() {
+        // Arrange
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<String> fragments = Flux.just(PROFIT_REPLY.substring(0, 40), PROFIT_REPLY.substring(40), "\nMay iba pa po ba?", " Salamat!")
+                .doOnCancel(() -> cancelled.set(true));
+        when(requestLimiter.submitMany(any())).thenAnswer(invocation -> {
+            Supplier<Flux<String>> task = invocation.getArgument(0);
+            return task.get();
+        });
+        when(ollamaService.chatStream(eq(OllamaRole.CLASSIFY), anyString(), anyString())).thenReturn(fragments);
+        when(reportService.getSalesSummary("today")).thenReturn(Map.of("totalProfit", 100));
+
+        // Act
+        List<ChatStreamEvent> events = aiService.streamMessage(new ChatRequest("kumusta ang negosyo natin today?", null))
+                .collectList().block();
+
+        // Assert
+        assertTrue(cancelled.get());
+        ChatResponse result = (ChatResponse) events.get(events.size() - 1).getData();
+        assertEquals("VIEW_PROFIT", result.getAction());
+        assertEquals(Map.of("totalProfit", 100), result.getData());
+        verify(ollamaService, never()).chatStream(eq(OllamaRole.EXPLAIN), anyString(), anyString());
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiIntentRouterTest {
+
+    private static final String MODEL = "MODEL";
+
+    private final AiIntentRouter intentRouter = new AiIntentRouter(0.8);
+
+    @Test
+    void route_OnLabeledCorpus_ShouldBePreciseAndRecallReadOnlyQuestions() throws Exception {
+        // Arrange
+        List<String[]> corpus = loadCorpus();
+        int routedCorrectly = 0;
+        int readOnly = 0;
+        List<String> wrong = new ArrayList<>();
+
+        // Act
+        for (String[] entry : corpus) {
+            String message = entry[0];
+            String expected = entry[1];
+            Optional<AiIntent> intent = intentRouter.route(message);
+
+            if (!MODEL.equals(expected)) {
+                readOnly++;
+            }
+            if (intent.isPresent()) {
+                if (intent.get().action().equals(expected)) {
+                    routedCorrectly++;
+                } else {
+                    wrong.add(message + " -> " + intent.get().action());
+                }
+            }
+        }
+
+        // Assert
+        double recall = (double) routedCorrectly / readOnly;
+        assertTrue(wrong.isEmpty(), "misrouted: " + wrong);
+        assertTrue(recall >= 0.9, "recall " + recall);
+    }
+
+    @Test
+    void classify_WithPeriodAndLimit_ShouldExtractParameters() {
+        // Act
+        AiIntent intent = intentRouter.route("top 3 best selling items this week").orElseThrow();
+
+        // Assert
+        assertEquals("VIEW_TOP_ITEMS", intent.action());
+        assertEquals("week", intent.parameters().get("period"));
+        assertEquals(3, intent.parameters().get("limit"));
+        assertEquals("Eto po ang best-selling items ngayong linggo...", intent.message());
+    }
+
+    @Test
+    void classify_WithStockThreshold_ShouldExtractThreshold() {
+        // Act
+        AiIntent intent = intentRouter.route("ano ang stock na kulang sa 20?").orElseThrow();
+
+        // Assert
+        assertEquals("VIEW_STOCK", intent.action());
+        assertEquals(20, intent.parameters().get("threshold"));
+    }
+
+    @Test
+    void classify_WithWriteVerb_ShouldHaveNoConfidence() {
+        // Act
+        AiIntentRouter.Classification classification = intentRouter.classify("nagbenta ako ng 5 chocolate cakes today");
+
+        // Assert
+        assertNull(classification.intent());
+        assertEquals(0.0, classification.confidence());
+    }
+
+    @Test
+    void route_ShouldCountRoutedAndPassedMessages() {
+        // Act
+        intentRouter.route("pa-show ng lahat ng materials");
+        intentRouter.route("bumili ako ng 10 eggs");
+
+        // Assert
+        assertEquals(1L, intentRouter.getStats().get("routed"));
+        assertEquals(1L, intentRouter.getStats().get("passedToModel"));
+    }
+
+    private List<String[]> loadCorpus() throws Exception {
+        List<String[]> corpus = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/ai/intent-corpus.tsv"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    corpus.add(line.split("\t"));
+                }
+            }
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiRequestLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void submit_WhenSlotsAndQueueAreFull_ShouldRejectWithBusy() {
+        // Arrange
+        AiRequestLimiter limiter = new AiRequestLimiter(1, 1, meterRegistry);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        AtomicInteger started = new AtomicInteger();
+
+        limiter.submit(() -> {
+            started.incrementAndGet();
+            return first.asMono();
+        }).subscribe();
+        limiter.submit(() -> {
+            started.incrementAndGet();
+            return second.asMono();
+        }).subscribe();
+
+        // Act & Assert
+        assertThrows(AiBusyException.class, () -> limiter.submit(() -> Mono.just("third")).block());
+        assertEquals(1, started.get());
+        assertEquals(1L, limiter.getStats().get("rejected"));
+        assertEquals(1.0, meterRegistry.get("ollama.requests.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("ollama.requests.queued").gauge().value());
+    }
+
+    @Test
+    void submit_WhenRunningCallCompletes_ShouldStartQueuedCall() {
+        // Arrange
+        AiRequestLimiter limiter = new AiRequestLimiter(1, 1, meterRegistry);
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<String> secondResult = new AtomicReference<>();
+
+        limiter.submit(first::asMono).subscribe();
+        limiter.submit(() -> Mono.just("second")).subscribe(secondResult::set);
+        assertNull(secondResult.get());
+
+        // Act
+        first.tryEmitValue("first");
+
+        // Assert
+        assertEquals("second", secondResult.get());
+        assertEquals(0, limiter.getStats().get("running"));
+        assertEquals(2, meterRegistry.get("ollama.queue.wait").timer().count());
+        assertEquals("third", limiter.submit(() -> Mono.just("third")).block(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void submit_WhenTaskFails_ShouldReleaseSlot() {
+        // Arrange
+        AiRequestLimiter limiter = new AiRequestLimiter(1, 0, meterRegistry);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> limiter.submit(() -> {
+            throw new IllegalStateException("boom");
+        }).block());
+
+        // Assert
+        assertEquals("ok", limiter.submit(() -> Mono.just("ok")).block(Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseCacheTest {
+
+    private MutableClock clock;
+    private AiResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        responseCache = new AiResponseCache(2, Duration.ofMinutes(10), clock);
+    }
+
+    @Test
+    void get_WithDifferentCaseAndPunctuation_ShouldHitSameEntry() {
+        // Arrange
+        responseCache.put("magkano kinita ko today?", "VIEW_PROFIT", Map.of("period", "today"), "Tingnan natin...");
+
+        // Act
+        Optional<AiIntent> result = responseCache.get("  Magkano KINITA ko   today?? ");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("VIEW_PROFIT", result.get().action());
+        assertEquals("today", result.get().parameters().get("period"));
+    }
+
+    @Test
+    void put_WithWriteAction_ShouldNotCache() {
+        // Act
+        responseCache.put("nagbenta ako ng 5 cake", "RECORD_SALE", Map.of("quantity", 5), "Sige po");
+        responseCache.put("bumili ako ng 10 eggs", "ADD_MATERIAL", Map.of("quantity", 10), "Magkano po?");
+
+        // Assert
+        assertTrue(responseCache.get("nagbenta ako ng 5 cake").isEmpty());
+        assertTrue(responseCache.get("bumili ako ng 10 eggs").isEmpty());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldExpireEntry() {
+        // Arrange
+        responseCache.put("pa-check ng stock", "VIEW_STOCK", Map.of(), "Eto po");
+        clock.advance(Duration.ofMinutes(10));
+
+        // Act
+        Optional<AiIntent> result = responseCache.get("pa-check ng stock");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(1L, responseCache.getStats().get("expirations"));
+        assertEquals(0, responseCache.getStats().get("size"));
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        responseCache.put("pa-check ng stock", "VIEW_STOCK", Map.of(), "Eto po");
+        responseCache.put("pa-show ng materials", "VIEW_MATERIALS", Map.of(), "Eto po");
+        responseCache.get("pa-check ng stock");
+
+        // Act
+        responseCache.put("best selling items", "VIEW_TOP_ITEMS", Map.of(), "Eto po");
+
+        // Assert
+        assertTrue(responseCache.get("pa-check ng stock").isPresent());
+        assertTrue(responseCache.get("pa-show ng materials").isEmpty());
+        assertEquals(1L, responseCache.getStats().get("evictions"));
+    }
+
+    @Test
+    void getStats_ShouldReportHitRate() {
+        // Arrange
+        responseCache.put("pa-check ng stock", "VIEW_STOCK", Map.of(), "Eto po");
+
+        // Act
+        responseCache.get("pa-check ng stock");
+        responseCache.get("pa-check ng stock");
+        responseCache.get("ano ang low stock items?");
+        responseCache.get("magkano kinita ko today?");
+        Map<String, Object> stats = responseCache.getStats();
+
+        // Assert
+        assertEquals(2L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(0.5, stats.get("hitRate"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
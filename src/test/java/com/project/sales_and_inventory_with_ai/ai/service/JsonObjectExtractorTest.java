@@ -0,0 +1,66 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonObjectExtractorTest {
+
+    @Test
+    void feed_ShouldFindObjectInsideMarkdownFenceAndProse() {
+        // Arrange
+        String output = "Heto po:\n```json\n{\"action\":\"VIEW_STOCK\",\"parameters\":{\"threshold\":5}}\n```\nSalamat!";
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+
+        // Act
+        boolean complete = extractor.feed(output);
+
+        // Assert
+        assertTrue(complete);
+        assertEquals("{\"action\":\"VIEW_STOCK\",\"parameters\":{\"threshold\":5}}",
+                output.substring(extractor.getStart(), extractor.getEnd()));
+    }
+
+    @Test
+    void feed_ShouldIgnoreBracesAndEscapedQuotesInsideStrings() {
+        // Arrange
+        String object = "{\"message\":\"Sabi niya \\\"{ok}\\\" tapos } na\",\"parameters\":{\"items\":[{\"name\":\"Egg\"}]}}";
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+
+        // Act
+        extractor.feed(object + " {\"second\":true}");
+
+        // Assert
+        assertEquals(0, extractor.getStart());
+        assertEquals(object.length(), extractor.getEnd());
+    }
+
+    @Test
+    void feed_WithChunks_ShouldCompleteOnlyWhenObjectCloses() {
+        // Arrange
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+
+        // Act & Assert
+        assertFalse(extractor.feed("```json\n{\"action\":\"VIEW_PRO"));
+        assertFalse(extractor.feed("FIT\",\"message\":\"Eto }"));
+        assertTrue(extractor.feed("\"}\n```"));
+        assertEquals(8, extractor.getStart());
+        assertEquals(50, extractor.getEnd());
+        assertTrue(extractor.feed("more text"));
+        assertEquals(50, extractor.getEnd());
+    }
+
+    @Test
+    void feed_WithoutObject_ShouldStayIncomplete() {
+        // Arrange
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+
+        // Act
+        boolean complete = extractor.feed("Sorry, hindi ko alam.");
+
+        // Assert
+        assertFalse(complete);
+        assertEquals(-1, extractor.getStart());
+        assertEquals(-1, extractor.getEnd());
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaCircuitBreakerTest {
+
+    private MutableClock clock;
+    private OllamaCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        circuitBreaker = new OllamaCircuitBreaker(3, Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    void recordFailure_AtThreshold_ShouldOpenAndRefuseCalls() {
+        // Act
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertEquals(OllamaCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordSuccess_ShouldResetFailureCount() {
+        // Act
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertEquals(OllamaCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void allowRequest_AfterOpenPeriod_ShouldLetOneTrialThrough() {
+        // Arrange
+        circuitBreaker.trip();
+        clock.advance(Duration.ofSeconds(31));
+
+        // Act & Assert
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(OllamaCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordSuccess();
+        assertEquals(OllamaCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordFailure_WhenHalfOpen_ShouldReopenImmediately() {
+        // Arrange
+        circuitBreaker.trip();
+        circuitBreaker.probeSucceeded();
+        assertTrue(circuitBreaker.allowRequest());
+
+        // Act
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertEquals(OllamaCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordCancelled_WhenHalfOpen_ShouldFreeTrialSlot() {
+        // Arrange
+        circuitBreaker.trip();
+        circuitBreaker.probeSucceeded();
+        assertTrue(circuitBreaker.allowRequest());
+
+        // Act
+        circuitBreaker.recordCancelled();
+
+        // Assert
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
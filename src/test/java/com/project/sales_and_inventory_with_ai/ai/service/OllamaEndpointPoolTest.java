@@ -0,0 +1,67 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaEndpointPoolTest {
+
+    private final OllamaEndpoint gpuA = new OllamaEndpoint("gpu-a", "http://gpu-a:11434", List.of("llama3.2", "llama3.2:1b"), 2, WebClient.create("http://gpu-a:11434"));
+    private final OllamaEndpoint gpuB = new OllamaEndpoint("gpu-b", "http://gpu-b:11434", List.of("llama3.2"), 1, WebClient.create("http://gpu-b:11434"));
+    private final OllamaEndpointPool endpointPool = new OllamaEndpointPool(List.of(gpuA, gpuB));
+
+    @Test
+    void acquire_ShouldPickEndpointWithFewestOutstandingRequests() {
+        // Act
+        OllamaEndpoint first = endpointPool.acquire("llama3.2", List.of()).orElseThrow();
+        OllamaEndpoint second = endpointPool.acquire("llama3.2", List.of()).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(1, gpuA.getOutstanding());
+        assertEquals(1, gpuB.getOutstanding());
+    }
+
+    @Test
+    void acquire_WhenAllEndpointsAtCap_ShouldReturnEmpty() {
+        // Arrange
+        endpointPool.acquire("llama3.2", List.of());
+        endpointPool.acquire("llama3.2", List.of());
+        endpointPool.acquire("llama3.2", List.of());
+
+        // Act
+        Optional<OllamaEndpoint> result = endpointPool.acquire("llama3.2", List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        endpointPool.release(gpuB);
+        assertSame(gpuB, endpointPool.acquire("llama3.2", List.of()).orElseThrow());
+    }
+
+    @Test
+    void acquire_ShouldOnlyUseEndpointsServingTheModel() {
+        // Act
+        OllamaEndpoint first = endpointPool.acquire("llama3.2:1b", List.of()).orElseThrow();
+        OllamaEndpoint second = endpointPool.acquire("llama3.2:1b", List.of()).orElseThrow();
+        Optional<OllamaEndpoint> third = endpointPool.acquire("llama3.2:1b", List.of());
+
+        // Assert
+        assertSame(gpuA, first);
+        assertSame(gpuA, second);
+        assertTrue(third.isEmpty());
+        assertFalse(endpointPool.hasEndpointFor("mistral"));
+    }
+
+    @Test
+    void acquire_ShouldSkipExcludedEndpoints() {
+        // Act
+        Optional<OllamaEndpoint> result = endpointPool.acquire("llama3.2", List.of(gpuA));
+
+        // Assert
+        assertSame(gpuB, result.orElseThrow());
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the health probe against an in-process stub endpoint that never answers
+class OllamaHealthMonitorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger probes = new AtomicInteger();
+    private HttpServer server;
+
+    @AfterEach
+    void stopStub() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void checkHealth_WhenOllamaHangs_ShouldNotHoldTheSchedulerThread() throws Exception {
+        // Arrange
+        OllamaCircuitBreaker circuitBreaker = new OllamaCircuitBreaker(3, Duration.ofSeconds(30), Clock.systemUTC());
+        OllamaHealthMonitor monitor = new OllamaHealthMonitor(newOllamaService(hangingStub(), circuitBreaker), circuitBreaker);
+
+        // Act
+        long start = System.nanoTime();
+        monitor.checkHealth();
+        monitor.checkHealth();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + " ms");
+        assertTrue(monitor.isAvailable());
+        assertNull(monitor.getLastChecked());
+
+        // The probe gives up on its own (5 s per endpoint) and only one was sent while it was in flight
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (monitor.getLastChecked() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertFalse(monitor.isAvailable());
+        assertEquals(1, probes.get());
+    }
+
+    private HttpServer hangingStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            probes.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private OllamaService newOllamaService(HttpServer server, OllamaCircuitBreaker circuitBreaker) {
+        OllamaProperties.Endpoint endpoint = new OllamaProperties.Endpoint();
+        endpoint.setName("hanging");
+        endpoint.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        OllamaProperties properties = new OllamaProperties();
+        properties.setEndpoints(List.of(endpoint));
+        return new OllamaService(new OllamaEndpointPool(properties, WebClient.create()), properties, circuitBreaker,
+                new SimpleMeterRegistry());
+    }
+}
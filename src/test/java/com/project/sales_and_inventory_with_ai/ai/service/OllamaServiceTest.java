@@ -0,0 +1,227 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs OllamaService against in-process stub servers that answer with their own name after a fixed delay
+class OllamaServiceTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final Map<String, String> lastModelByServer = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> lastRequestByServer = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void stopStubs() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void chat_WithConcurrentRequests_ShouldSpreadThemAcrossEndpoints() {
+        // Arrange
+        OllamaProperties properties = properties(endpoint("gpu-a", stub("gpu-a", 300), 2), endpoint("gpu-b", stub("gpu-b", 300), 2));
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act
+        List<String> answeredBy = Flux.range(0, 4)
+                .flatMap(i -> ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt " + i))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(2, answeredBy.stream().filter("gpu-a"::equals).count());
+        assertEquals(2, answeredBy.stream().filter("gpu-b"::equals).count());
+    }
+
+    @Test
+    void chat_WhenEveryEndpointIsAtCap_ShouldShedWithBusy() {
+        // Arrange
+        OllamaProperties properties = properties(endpoint("gpu-a", stub("gpu-a", 500), 1), endpoint("gpu-b", stub("gpu-b", 500), 1));
+        OllamaService ollamaService = newOllamaService(properties);
+        AtomicInteger busy = new AtomicInteger();
+
+        // Act
+        List<String> answered = Flux.range(0, 3)
+                .flatMap(i -> ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt " + i)
+                        .onErrorResume(AiBusyException.class, e -> {
+                            busy.incrementAndGet();
+                            return Mono.empty();
+                        }))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(2, answered.size());
+        assertEquals(1, busy.get());
+    }
+
+    @Test
+    void chat_WhenFirstEndpointIsSlow_ShouldHedgeOnAnotherAndTakeTheFasterAnswer() {
+        // Arrange
+        OllamaProperties properties = properties(endpoint("slow", stub("slow", 3_000), 1), endpoint("fast", stub("fast", 50), 2));
+        properties.setHedgeDelay(Duration.ofMillis(100));
+        // Both idle, so the first listed endpoint ("slow") gets the request
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act
+        long start = System.nanoTime();
+        String answer = ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt").block(Duration.ofSeconds(10));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals("fast", answer);
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + " ms");
+        assertEquals(1L, ollamaService.getStats().get("hedgesSent"));
+        assertEquals(1L, ollamaService.getStats().get("hedgesWon"));
+    }
+
+    @Test
+    void chat_WithRoleRoutes_ShouldSendEachRoleToAnEndpointServingItsModel() {
+        // Arrange
+        OllamaProperties.Endpoint small = endpoint("small", stub("small", 0), 2);
+        small.setModels(List.of("llama3.2:1b"));
+        OllamaProperties.Endpoint large = endpoint("large", stub("large", 0), 2);
+        large.setModels(List.of("llama3.2"));
+        OllamaProperties properties = properties(small, large);
+        properties.setRoutes(Map.of("classify", "llama3.2:1b", "explain", "llama3.2"));
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act
+        String classified = ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt").block(Duration.ofSeconds(5));
+        String explained = String.join("", ollamaService.chatStream(OllamaRole.EXPLAIN, "system", "prompt")
+                .collectList().block(Duration.ofSeconds(5)));
+
+        // Assert
+        assertEquals("small", classified);
+        assertEquals("llama3.2:1b", lastModelByServer.get("small"));
+        assertEquals("large", explained);
+        assertEquals("llama3.2", lastModelByServer.get("large"));
+    }
+
+    @Test
+    void chat_WhenOnlyEndpointFails_ShouldReportItsError() {
+        // Arrange
+        HttpServer server = stub("down", 0);
+        OllamaProperties properties = properties(endpoint("down", server, 2));
+        properties.setHedgeDelay(Duration.ofMillis(50));
+        server.stop(0);
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt").block(Duration.ofSeconds(5)));
+        assertTrue(exception.getMessage().startsWith("Failed to communicate with AI"));
+        assertFalse(exception.getMessage().contains("All sources"), exception.getMessage());
+    }
+
+    @Test
+    void chat_ShouldRecordQueueFreeCallTimeAndOllamasPromptEvalAndGenerationTimes() {
+        // Arrange
+        OllamaProperties properties = properties(endpoint("gpu-a", stub("gpu-a", 0), 2));
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act
+        ollamaService.chat(OllamaRole.CLASSIFY, "system", "prompt").block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("ollama.request").tag("role", "classify").tag("outcome", "success").timer().count());
+        assertEquals(40.0, meterRegistry.get("ollama.prompt.eval").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(600.0, meterRegistry.get("ollama.generation").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(120.0, meterRegistry.get("ollama.prompt.tokens").summary().totalAmount());
+        assertEquals(30.0, meterRegistry.get("ollama.generation.tokens").summary().totalAmount());
+    }
+
+    @Test
+    void generate_ShouldSendSystemPromptKeepAliveAndNumPredictSeparately() {
+        // Arrange
+        OllamaProperties properties = properties(endpoint("gpu-a", stub("gpu-a", 0), 2));
+        properties.setKeepAlive("30m");
+        OllamaService ollamaService = newOllamaService(properties);
+
+        // Act
+        ollamaService.generate(OllamaRole.CLASSIFY, AIServiceImpl.SYSTEM_PROMPT, AIServiceImpl.userPrompt("pa-check ng stock"))
+                .block(Duration.ofSeconds(5));
+
+        // Assert
+        JsonNode request = lastRequestByServer.get("gpu-a");
+        assertEquals(AIServiceImpl.SYSTEM_PROMPT, request.get("system").asString());
+        assertEquals("User message: pa-check ng stock\nResponse (JSON only):", request.get("prompt").asString());
+        assertEquals("30m", request.get("keep_alive").asString());
+        assertEquals(500, request.get("options").get("num_predict").asInt());
+    }
+
+    private HttpServer stub(String name, long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/generate", exchange -> {
+                JsonNode request = jsonMapper.readTree(exchange.getRequestBody().readAllBytes());
+                lastModelByServer.put(name, request.get("model").asString());
+                lastRequestByServer.put(name, request);
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = jsonMapper.writeValueAsBytes(Map.of("model", request.get("model").asString(), "response", name, "done", true,
+                        "prompt_eval_count", 120, "prompt_eval_duration", 40_000_000L, "eval_count", 30, "eval_duration", 600_000_000L));
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                try (OutputStream out = exchange.getResponseBody()) {
+                    exchange.sendResponseHeaders(200, body.length);
+                    out.write(body);
+                } catch (IOException e) {
+                    // Client cancelled (the losing side of a hedge)
+                }
+            });
+            server.start();
+            servers.add(server);
+            return server;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static OllamaProperties.Endpoint endpoint(String name, HttpServer server, int maxConcurrent) {
+        OllamaProperties.Endpoint endpoint = new OllamaProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        endpoint.setMaxConcurrent(maxConcurrent);
+        return endpoint;
+    }
+
+    private static OllamaProperties properties(OllamaProperties.Endpoint... endpoints) {
+        OllamaProperties properties = new OllamaProperties();
+        properties.setTimeout(10);
+        properties.setEndpoints(List.of(endpoints));
+        return properties;
+    }
+
+    private OllamaService newOllamaService(OllamaProperties properties) {
+        OllamaCircuitBreaker circuitBreaker = new OllamaCircuitBreaker(3, Duration.ofSeconds(30), Clock.systemUTC());
+        return new OllamaService(new OllamaEndpointPool(properties, WebClient.create()), properties, circuitBreaker, meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.sales_and_inventory_with_ai.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingFieldExtractorTest {
+
+    private static final String RESPONSE = "```json\n{\"action\":\"VIEW_PROFIT\","
+            + "\"parameters\":{\"period\":\"today\",\"message\":\"nested\"},"
+            + "\"message\":\"Tingnan natin: \\\"profit\\\"\\nngayong araw \\u2014 ok\","
+            + "\"needsMoreInfo\":false}\n```";
+
+    @Test
+    void feed_WithAnyChunkSize_ShouldStreamOnlyTopLevelMessage() {
+        for (int chunkSize = 1; chunkSize <= RESPONSE.length(); chunkSize++) {
+            // Arrange
+            StreamingFieldExtractor extractor = new StreamingFieldExtractor("message");
+            StringBuilder streamed = new StringBuilder();
+
+            // Act
+            for (int i = 0; i < RESPONSE.length(); i += chunkSize) {
+                streamed.append(extractor.feed(RESPONSE.substring(i, Math.min(i + chunkSize, RESPONSE.length()))));
+            }
+
+            // Assert
+            assertEquals("Tingnan natin: \"profit\"\nngayong araw — ok", streamed.toString(),
+                    "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void feed_ShouldEmitMessageBeforeJsonIsComplete() {
+        // Arrange
+        StreamingFieldExtractor extractor = new StreamingFieldExtractor("message");
+
+        // Act & Assert
+        assertEquals("", extractor.feed("{\"action\":\"VIEW_STOCK\",\"mess"));
+        assertEquals("Ito", extractor.feed("age\":\"Ito"));
+        assertEquals(" ang stock", extractor.feed(" ang stock\",\"needsMoreInfo\""));
+        assertEquals("", extractor.feed(":false}"));
+    }
+
+    @Test
+    void feed_WhenMessageIsNotString_ShouldEmitNothing() {
+        // Arrange
+        StreamingFieldExtractor extractor = new StreamingFieldExtractor("message");
+
+        // Act & Assert
+        assertEquals("", extractor.feed("{\"message\":null,\"action\":\"ERROR\",\"note\":\"x\"}"));
+    }
+}
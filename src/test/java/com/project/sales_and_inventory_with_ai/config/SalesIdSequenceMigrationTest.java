@@ -0,0 +1,65 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: the test turns sales.id back into an identity column
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sales_id_migration;MODE=Oracle;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SalesIdSequenceMigrationTest {
+
+    @Autowired
+    private SalesIdSequenceMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Test
+    void migrate_OnSchemaFromIdentityIds_ShouldDropIdentityAndStartSequenceAboveExistingIds() {
+        // Arrange - the schema an existing database has: identity ids and a fresh sequence from ddl-auto=update
+        FoodItem foodItem = foodItemRepository.findAll().get(0);
+        jdbcTemplate.execute("ALTER TABLE sales ALTER COLUMN id BIGINT GENERATED ALWAYS AS IDENTITY (START WITH 1000)");
+        jdbcTemplate.update("INSERT INTO sales (food_item_id, quantity_sold, sale_price, sale_date) VALUES (?, 1, 10, ?)",
+                foodItem.getId(), LocalDateTime.now());
+        jdbcTemplate.execute("DROP SEQUENCE sales_seq");
+        jdbcTemplate.execute("CREATE SEQUENCE sales_seq START WITH 1 INCREMENT BY 50");
+        long legacyMaxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM sales", Long.class);
+
+        // Act
+        migration.migrate();
+
+        // Assert - the first pooled block (next - 49 .. next) clears the old ids and explicit ids are accepted
+        long next = jdbcTemplate.queryForObject("SELECT sales_seq.NEXTVAL FROM dual", Long.class);
+        assertEquals(1000, legacyMaxId);
+        assertTrue(next - SalesIdSequenceMigration.ALLOCATION_SIZE + 1 > legacyMaxId);
+        assertEquals(1, jdbcTemplate.update(
+                "INSERT INTO sales (id, food_item_id, quantity_sold, sale_price, sale_date) VALUES (?, ?, 1, 10, ?)",
+                next, foodItem.getId(), LocalDateTime.now()));
+    }
+
+    @Test
+    void migrate_OnMigratedSchema_ShouldLeaveSequenceAlone() {
+        // Arrange
+        migration.migrate();
+        long next = jdbcTemplate.queryForObject("SELECT sales_seq.NEXTVAL FROM dual", Long.class);
+
+        // Act
+        migration.migrate();
+
+        // Assert - only the migration's own read moved the sequence on
+        long after = jdbcTemplate.queryForObject("SELECT sales_seq.NEXTVAL FROM dual", Long.class);
+        assertEquals(next + 2 * SalesIdSequenceMigration.ALLOCATION_SIZE, after);
+    }
+}
@@ -0,0 +1,101 @@
+package com.project.sales_and_inventory_with_ai.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database so the sample data other tests load can't stop the generator from running
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "synthetic.seed=7",
+        "synthetic.materials=40",
+        "synthetic.food-items=60",
+        "synthetic.min-ingredients=2",
+        "synthetic.max-ingredients=6",
+        "synthetic.sales=20000",
+        "synthetic.days=90",
+        "synthetic.end-date=2026-06-30",
+        "synthetic.batch-size=1000"
+})
+@ActiveProfiles({"test", "synthetic"})
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void run_ShouldLoadConfiguredDatasetInsteadOfSampleData() {
+        // Assert
+        assertTrue(applicationContext.getBeansOfType(DataInitializer.class).isEmpty());
+        assertEquals(40, count("SELECT COUNT(*) FROM materials"));
+        assertEquals(60, count("SELECT COUNT(*) FROM food_items"));
+        assertEquals(20000, count("SELECT COUNT(*) FROM sales"));
+
+        Map<String, Object> fanOut = jdbcTemplate.queryForMap(
+                "SELECT MIN(c) AS min_count, MAX(c) AS max_count FROM " +
+                "(SELECT COUNT(*) AS c FROM ingredients GROUP BY food_item_id)");
+        assertTrue(((Number) fanOut.get("MIN_COUNT")).intValue() >= 2);
+        assertTrue(((Number) fanOut.get("MAX_COUNT")).intValue() <= 6);
+
+        Map<String, Object> dates = jdbcTemplate.queryForMap("SELECT MIN(sale_date) AS first_sale, MAX(sale_date) AS last_sale FROM sales");
+        assertFalse(((Timestamp) dates.get("FIRST_SALE")).toLocalDateTime().toLocalDate().isBefore(LocalDate.of(2026, 4, 2)));
+        assertFalse(((Timestamp) dates.get("LAST_SALE")).toLocalDateTime().toLocalDate().isAfter(LocalDate.of(2026, 6, 30)));
+
+        // Closed overnight, busiest at lunch
+        assertEquals(0, count("SELECT COUNT(*) FROM sales WHERE EXTRACT(HOUR FROM sale_date) < 5"));
+        assertEquals(12, count("SELECT EXTRACT(HOUR FROM sale_date) FROM sales GROUP BY EXTRACT(HOUR FROM sale_date) " +
+                "ORDER BY COUNT(*) DESC FETCH FIRST 1 ROWS ONLY"));
+
+        // Reports read whole days from the rollup, so it must match the raw sales
+        assertEquals(0, sum("SELECT SUM(profit) FROM sales").compareTo(sum("SELECT SUM(profit) FROM daily_sales_rollup")));
+    }
+
+    @Test
+    void generate_WithSameSeed_ShouldProduceSameData() {
+        // Arrange
+        List<Map<String, Object>> first = fingerprint();
+        for (String table : List.of("daily_sales_rollup", "sales", "ingredients", "food_items", "stock_movements", "materials")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+
+        // Act
+        generator.generate();
+
+        // Assert
+        assertEquals(first, fingerprint());
+    }
+
+    // Everything except generated ids
+    private List<Map<String, Object>> fingerprint() {
+        return jdbcTemplate.queryForList(
+                "SELECT f.name, f.price_per_serving, COUNT(s.id) AS sales, SUM(s.quantity_sold) AS quantity, " +
+                "SUM(s.profit) AS profit, MIN(s.sale_date) AS first_sale, MAX(s.sale_date) AS last_sale " +
+                "FROM food_items f LEFT JOIN sales s ON s.food_item_id = f.id " +
+                "GROUP BY f.name, f.price_per_serving ORDER BY f.name");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private BigDecimal sum(String sql) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.project.sales_and_inventory_with_ai.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fails the build when an endpoint issues more SQL statements than its fetch plan allows.
+// Counts are Hibernate's prepared statements; the sale test also counts every JDBC statement,
+// including JdbcTemplate statements in the repository fragments.
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(FetchPlanStatementCountTest.JdbcStatementCounter.class)
+class FetchPlanStatementCountTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcStatementCounter jdbcStatements;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getSales_ShouldUseOneStatement() throws Exception {
+        assertStatementCount(get("/api/sales"), 1);
+    }
+
+    @Test
+    void getSaleById_ShouldFetchFoodItemInSameStatement() throws Exception {
+        assertStatementCount(get("/api/sales/1"), 1);
+    }
+
+    @Test
+    void getFoodItems_ShouldUseOneStatement() throws Exception {
+        assertStatementCount(get("/api/food-items"), 1);
+        assertStatementCount(get("/api/food-items?search=cake"), 1);
+    }
+
+    @Test
+    void getFoodItemAvailability_ShouldNotQueryTheDatabase() throws Exception {
+        assertStatementCount(get("/api/food-items/availability"), 0);
+    }
+
+    @Test
+    void getFoodItemById_ShouldFetchRecipeInOneStatement() throws Exception {
+        assertStatementCount(get("/api/food-items/1"), 1);
+    }
+
+    @Test
+    void getMaterials_ShouldUseOneStatement() throws Exception {
+        assertStatementCount(get("/api/materials"), 1);
+        assertStatementCount(get("/api/materials?search=flour"), 1);
+        assertStatementCount(get("/api/materials/1"), 1);
+        assertStatementCount(get("/api/materials/low-stock"), 0);
+    }
+
+    @Test
+    void getReports_ShouldStayWithinQueryBudget() throws Exception {
+        // Rollup for whole days plus a raw query for each partial edge day
+        assertStatementCount(get("/api/reports/profit?period=month"), 6);
+        assertStatementCount(get("/api/reports/top-items?period=month"), 3);
+        assertStatementCount(get("/api/reports/materials"), 1);
+        assertStatementCount(get("/api/reports/materials?lowStockThreshold=10"), 1);
+        assertStatementCount(get("/api/reports/timeseries?from=2026-09-01T00:00:00&to=2026-09-02T00:00:00&bucket=hour"), 1);
+        assertStatementCount(get("/api/reports/timeseries?from=2026-09-01T08:30:00&to=2026-09-30T12:00:00&metric=revenue,qty"), 3);
+    }
+
+    @Test
+    void createSale_WithCachedRecipe_ShouldOnlyInsert() throws Exception {
+        String body = "{\"foodItemId\":4,\"quantitySold\":1,\"salePrice\":80.00}";
+        
+        // First sale loads the recipe into the cache
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        
+        // Sale and stock movement inserts only; with the stock UPDATE and the rollup MERGE, no stock is read back
+        statistics.clear();
+        jdbcStatements.reset();
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Expected at most 2 statements but was " + statistics.getPrepareStatementCount());
+        assertTrue(jdbcStatements.count() <= 4,
+                "Expected at most 4 JDBC statements but was " + jdbcStatements.count());
+    }
+
+    private void assertStatementCount(RequestBuilder request, long maxStatements) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " statements but was " + statements);
+    }
+
+    // Wraps the DataSource so every statement prepared on its connections is counted, whoever issues it.
+    // Only the thread that called reset() counts; background refreshes would make the count flaky.
+    @TestConfiguration
+    static class JdbcStatementCounter implements BeanPostProcessor {
+
+        private final AtomicLong statements = new AtomicLong();
+        private volatile Thread countedThread;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return counting(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return counting(super.getConnection(username, password));
+                }
+            };
+        }
+
+        void reset() {
+            countedThread = Thread.currentThread();
+            statements.set(0);
+        }
+
+        long count() {
+            return statements.get();
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        boolean statement = method.getName().startsWith("prepare") || method.getName().equals("createStatement");
+                        if (statement && Thread.currentThread() == countedThread) {
+                            statements.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
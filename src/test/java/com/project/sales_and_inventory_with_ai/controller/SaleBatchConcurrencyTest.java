@@ -0,0 +1,86 @@
+package com.project.sales_and_inventory_with_ai.controller;
+
+import com.project.sales_and_inventory_with_ai.dto.SaleBatchResultDTO;
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.service.FoodItemService;
+import com.project.sales_and_inventory_with_ai.service.MaterialService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SaleBatchConcurrencyTest {
+
+    @Autowired
+    private SaleController saleController;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private MaterialService materialService;
+
+    @Test
+    void createSalesBatch_WhenConcurrentSaleEmptiesStock_ShouldOnlyFailTheShortSales() {
+        // Arrange
+        Material material = materialService.createMaterial(
+                new Material(null, "Batch Race Rice", "kg", new BigDecimal("10.00"), new BigDecimal("10"), LocalDate.now(), null));
+        FoodItem foodItem = foodItemService.createFoodItem(newFoodItem("Batch Race Bowl", material));
+        List<SaleDTO> sales = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sales.add(new SaleDTO(null, foodItem.getId(), null, new BigDecimal("2"), new BigDecimal("50.00"), null, null, null));
+        }
+
+        // Another connection takes 5 of the 10 after the batch passed its check, before its UPDATE
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Map<Long, BigDecimal> quantities = invocation.getArgument(0);
+            if (quantities.containsKey(material.getId()) && raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE materials SET quantity = quantity - 5 WHERE id = ?", material.getId())).join();
+            }
+            return invocation.callRealMethod();
+        }).when(materialService).deductStockBatch(anyMap());
+
+        // Act
+        SaleBatchResultDTO result = saleController.createSalesBatch(sales).getBody();
+
+        // Assert
+        assertTrue(raced.get());
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(2, 3), result.getErrors().stream().map(SaleBatchResultDTO.ItemError::getIndex).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Insufficient stock"));
+        assertEquals(0, BigDecimal.ONE.compareTo(materialService.getMaterialById(material.getId()).getQuantity()));
+    }
+
+    private FoodItem newFoodItem(String name, Material material) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName(name);
+        foodItem.setPricePerServing(new BigDecimal("50.00"));
+        foodItem.setIngredients(new ArrayList<>(List.of(new Ingredient(null, foodItem, material, BigDecimal.ONE))));
+        return foodItem;
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.sales_and_inventory_with_ai.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(0.4);
+        index.put(1L, "Flour");
+        index.put(2L, "Sugar");
+        index.put(3L, "Chocolate Cake");
+        index.put(4L, "Chocolate");
+        index.put(5L, "Vanilla Extract");
+        index.put(6L, "Coffee Beans");
+        index.put(7L, "Brown Sugar");
+    }
+
+    @Test
+    void search_ShouldRankExactThenPrefixThenWordMatches() {
+        // Act
+        List<Long> result = index.search("chocolate", 10);
+
+        // Assert
+        assertEquals(List.of(4L, 3L), result);
+        assertEquals(List.of(2L, 7L), index.search("sugar", 10));
+    }
+
+    @Test
+    void search_WithIncompleteWord_ShouldAutocomplete() {
+        // Act & Assert
+        assertEquals(List.of(1L), index.search("fl", 10));
+        assertEquals(List.of(6L), index.search("cof", 10));
+        assertEquals(List.of(7L), index.search("brown su", 10));
+    }
+
+    @Test
+    void search_WithTyposAndTaglishSpelling_ShouldStillMatch() {
+        // Act & Assert
+        assertEquals(1L, index.search("flor", 10).get(0));
+        assertEquals(2L, index.search("suger", 10).get(0));
+        assertEquals(4L, index.search("tsokolate", 10).get(0));
+        assertEquals(5L, index.search("banilya", 10).get(0));
+        assertEquals(6L, index.search("kofe", 10).get(0));
+        assertTrue(index.search("milk", 10).isEmpty());
+    }
+
+    @Test
+    void put_WhenRenamedOrRemoved_ShouldUpdateResults() {
+        // Act
+        index.put(1L, "Bread Flour");
+        index.remove(2L);
+
+        // Assert
+        assertEquals(List.of(1L), index.search("bread", 10));
+        assertEquals(List.of(7L), index.search("sugar", 10));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void normalize_ShouldFoldAccentsCaseAndRespellings() {
+        // Act & Assert
+        assertEquals("pitsa", TrigramIndex.normalize("Pizza"));
+        assertEquals("keso", TrigramIndex.normalize("Queso"));
+        assertEquals("pinia kolada", TrigramIndex.normalize("Piña-Colada!"));
+        assertEquals(TrigramIndex.normalize("coffee"), TrigramIndex.normalize("Coffe"));
+    }
+}
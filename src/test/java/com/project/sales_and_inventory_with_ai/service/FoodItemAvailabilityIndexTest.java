@@ -0,0 +1,124 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.dto.FoodItemAvailabilityDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FoodItemAvailabilityIndexTest {
+
+    private static final Long FLOUR = 10L;
+    private static final Long SUGAR = 20L;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    private FoodItemAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FoodItemAvailabilityIndex(materialRepository, foodItemRepository);
+        when(materialRepository.findAllAsDTO()).thenReturn(List.of(
+                material(FLOUR, "Flour", "10"),
+                material(SUGAR, "Sugar", "3")));
+        when(foodItemRepository.findAllIngredientRows()).thenReturn(List.of(
+                row(1L, "Cake", FLOUR, "Flour", "0.5"),
+                row(1L, "Cake", SUGAR, "Sugar", "0.5"),
+                row(2L, "Bread", FLOUR, "Flour", "2"),
+                new FoodItemIngredientRow(3L, "Water", new BigDecimal("10.00"), null, null, null, null)));
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldComputeServingsFromTheScarcestMaterial() {
+        // Act
+        List<FoodItemAvailabilityDTO> availability = index.getAll();
+
+        // Assert
+        assertEquals(3, availability.size());
+        assertEquals(6L, availability.get(0).getServingsAvailable());
+        assertEquals("Sugar", availability.get(0).getLimitingMaterialName());
+        assertEquals(5L, availability.get(1).getServingsAvailable());
+        assertEquals(FLOUR, availability.get(1).getLimitingMaterialId());
+        assertNull(availability.get(2).getServingsAvailable());
+    }
+
+    @Test
+    void refreshMaterials_ShouldOnlyRecomputeFoodItemsUsingThemOnNextRefresh() {
+        // Arrange
+        FoodItemAvailabilityDTO bread = index.getAll().get(1);
+        when(materialRepository.findStock(List.of(SUGAR)))
+                .thenReturn(List.of(new MaterialStockDTO(SUGAR, "Sugar", "kg", new BigDecimal("1.2"), null)));
+
+        // Act
+        index.refreshMaterials(List.of(SUGAR));
+        index.refreshMaterials(List.of(SUGAR));
+        verify(materialRepository, never()).findStock(any());
+        index.refreshPending();
+
+        // Assert
+        List<FoodItemAvailabilityDTO> availability = index.getAll();
+        assertEquals(2L, availability.get(0).getServingsAvailable());
+        assertSame(bread, availability.get(1));
+        verify(materialRepository, times(1)).findStock(any());
+    }
+
+    @Test
+    void refreshFoodItem_ShouldMoveItToItsNewMaterials() {
+        // Arrange
+        when(foodItemRepository.findIngredientRowsById(2L)).thenReturn(List.of(row(2L, "Sweet Bread", SUGAR, "Sugar", "1")));
+        index.refreshFoodItem(2L);
+        FoodItemAvailabilityDTO bread = index.getAll().get(1);
+        when(materialRepository.findStock(List.of(FLOUR)))
+                .thenReturn(List.of(new MaterialStockDTO(FLOUR, "Flour", "kg", BigDecimal.ZERO, null)));
+
+        // Act
+        index.refreshMaterials(List.of(FLOUR));
+        index.refreshPending();
+
+        // Assert
+        assertEquals(3L, bread.getServingsAvailable());
+        assertEquals("Sweet Bread", bread.getFoodItemName());
+        assertSame(bread, index.getAll().get(1));
+        assertEquals(0L, index.getAll().get(0).getServingsAvailable());
+    }
+
+    @Test
+    void refreshFoodItem_WhenDeleted_ShouldDropIt() {
+        // Arrange
+        when(foodItemRepository.findIngredientRowsById(1L)).thenReturn(List.of());
+
+        // Act
+        index.refreshFoodItem(1L);
+
+        // Assert
+        assertEquals(List.of(2L, 3L), index.getAll().stream().map(FoodItemAvailabilityDTO::getFoodItemId).toList());
+    }
+
+    private static MaterialDTO material(Long id, String name, String quantity) {
+        return new MaterialDTO(id, name, "kg", new BigDecimal("50.00"), new BigDecimal(quantity), LocalDate.now(), null);
+    }
+
+    private static FoodItemIngredientRow row(Long foodItemId, String name, Long materialId, String materialName, String quantity) {
+        return new FoodItemIngredientRow(foodItemId, name, new BigDecimal("100.00"), materialId * 100 + foodItemId,
+                materialId, materialName, new BigDecimal(quantity));
+    }
+}
@@ -1,10 +1,13 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.FoodItemDTO;
+import com.project.sales_and_inventory_with_ai.dto.FoodItemIngredientRow;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
 import com.project.sales_and_inventory_with_ai.repository.IngredientRepository;
+import com.project.sales_and_inventory_with_ai.search.NameSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +38,15 @@ class FoodItemServiceImplTest {
     @Mock
     private MaterialService materialService;
 
+    @Mock
+    private RecipeCache recipeCache;
+
+    @Mock
+    private FoodItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private NameSearchIndex searchIndex;
+
     @InjectMocks
     private FoodItemServiceImpl foodItemService;
 
@@ -50,7 +62,8 @@ class FoodItemServiceImplTest {
             "kg",
             new BigDecimal("50.00"),
             new BigDecimal("100"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
 
         testFoodItem = new FoodItem();
@@ -124,6 +137,8 @@ class FoodItemServiceImplTest {
         assertNotNull(result);
         assertEquals("Chocolate Cake", result.getName());
         verify(foodItemRepository, times(1)).save(any(FoodItem.class));
+        verify(availabilityIndex, times(1)).refreshFoodItem(testFoodItem.getId());
+        verify(searchIndex, times(1)).foodItemSaved(testFoodItem.getId(), testFoodItem.getName());
     }
 
     @Test
@@ -149,6 +164,8 @@ class FoodItemServiceImplTest {
 
         // Assert
         verify(foodItemRepository, times(1)).deleteById(1L);
+        verify(availabilityIndex, times(1)).refreshFoodItem(1L);
+        verify(searchIndex, times(1)).foodItemDeleted(1L);
     }
 
     @Test
@@ -162,4 +179,55 @@ class FoodItemServiceImplTest {
         });
         assertTrue(exception.getMessage().contains("Food item not found"));
     }
+
+    @Test
+    void getAllFoodItemDTOs_ShouldAssembleIngredientsFromFlatRows() {
+        // Arrange
+        List<FoodItemIngredientRow> rows = Arrays.asList(
+            new FoodItemIngredientRow(1L, "Chocolate Cake", new BigDecimal("150.00"), 1L, 1L, "Flour", new BigDecimal("0.5")),
+            new FoodItemIngredientRow(1L, "Chocolate Cake", new BigDecimal("150.00"), 2L, 2L, "Sugar", new BigDecimal("0.2")),
+            new FoodItemIngredientRow(2L, "Iced Tea", new BigDecimal("40.00"), null, null, null, null)
+        );
+        when(foodItemRepository.findAllIngredientRows()).thenReturn(rows);
+
+        // Act
+        List<FoodItemDTO> result = foodItemService.getAllFoodItemDTOs();
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("Chocolate Cake", result.get(0).getName());
+        assertEquals(2, result.get(0).getIngredients().size());
+        assertEquals("Sugar", result.get(0).getIngredients().get(1).getMaterialName());
+        assertTrue(result.get(1).getIngredients().isEmpty());
+        verify(foodItemRepository, never()).findAllWithIngredients();
+    }
+
+    @Test
+    void searchFoodItemDTOsByName_ShouldKeepTheSearchRanking() {
+        // Arrange
+        when(searchIndex.searchFoodItems("cake")).thenReturn(List.of(2L, 1L));
+        when(foodItemRepository.findIngredientRowsByIds(List.of(2L, 1L))).thenReturn(Arrays.asList(
+            new FoodItemIngredientRow(1L, "Chocolate Cake", new BigDecimal("150.00"), 1L, 1L, "Flour", new BigDecimal("0.5")),
+            new FoodItemIngredientRow(2L, "Cake", new BigDecimal("120.00"), 2L, 1L, "Flour", new BigDecimal("0.4"))
+        ));
+
+        // Act
+        List<FoodItemDTO> result = foodItemService.searchFoodItemDTOsByName("cake");
+
+        // Assert
+        assertEquals(List.of("Cake", "Chocolate Cake"), result.stream().map(FoodItemDTO::getName).toList());
+    }
+
+    @Test
+    void searchFoodItemDTOsByName_WithoutMatches_ShouldNotQuery() {
+        // Arrange
+        when(searchIndex.searchFoodItems("xyz")).thenReturn(List.of());
+
+        // Act
+        List<FoodItemDTO> result = foodItemService.searchFoodItemDTOsByName("xyz");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(foodItemRepository);
+    }
 }
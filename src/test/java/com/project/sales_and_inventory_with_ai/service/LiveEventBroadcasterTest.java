@@ -0,0 +1,145 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveEventBroadcasterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LiveEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new LiveEventBroadcaster(JsonMapper.builder().build(), meterRegistry, 4, 2);
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEventsThenLiveOnes() {
+        // Arrange
+        RecordingSubscriber live = new RecordingSubscriber(Long.MAX_VALUE);
+        broadcaster.subscribe(null).subscribe(live);
+        broadcaster.onStockChanged(new StockChangedEvent(1L, new BigDecimal("-2"), new BigDecimal("8")));
+        broadcaster.heartbeat();
+        broadcaster.onStockChanged(new StockChangedEvent(2L, new BigDecimal("-1"), new BigDecimal("4")));
+
+        // Act
+        RecordingSubscriber resumed = new RecordingSubscriber(Long.MAX_VALUE);
+        broadcaster.subscribe(live.events.get(0).id()).subscribe(resumed);
+        broadcaster.onStockChanged(new StockChangedEvent(3L, new BigDecimal("5"), new BigDecimal("5")));
+
+        // Assert
+        assertEquals(4, live.events.size());
+        assertTrue(live.events.get(1).isHeartbeat());
+        assertEquals("stock", live.events.get(0).type());
+        assertEquals("{\"materialId\":1,\"quantityChange\":-2,\"quantity\":8}", live.events.get(0).data());
+        assertEquals(List.of(2L, 3L), resumed.events.stream().map(LiveEvent::sequence).toList());
+        assertEquals(2.0, meterRegistry.get("events.subscribers").gauge().value());
+    }
+
+    @Test
+    void publish_WhenSubscriberFallsBehind_ShouldDisconnectItAfterWhatIsQueued() {
+        // Arrange
+        RecordingSubscriber slow = new RecordingSubscriber(0);
+        broadcaster.subscribe(null).subscribe(slow);
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onStockChanged(new StockChangedEvent(id, BigDecimal.ONE, BigDecimal.TEN));
+        }
+        slow.request(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), slow.events.stream().map(LiveEvent::sequence).toList());
+        assertTrue(slow.completed);
+        assertEquals(1.0, meterRegistry.get("events.subscribers.dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("events.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_WithIdNoLongerInHistory_ShouldSendReset() {
+        // Arrange
+        RecordingSubscriber live = new RecordingSubscriber(Long.MAX_VALUE);
+        broadcaster.subscribe(null).subscribe(live);
+        broadcaster.onStockChanged(new StockChangedEvent(1L, BigDecimal.ONE, BigDecimal.TEN));
+        String firstId = live.events.get(0).id();
+        live.dispose();
+        for (long id = 2; id <= 6; id++) {
+            broadcaster.onStockChanged(new StockChangedEvent(id, BigDecimal.ONE, BigDecimal.TEN));
+        }
+
+        // Act
+        LiveEvent tooOld = broadcaster.subscribe(firstId).blockFirst();
+        LiveEvent otherRun = broadcaster.subscribe("42-6").blockFirst();
+
+        // Assert
+        assertEquals(LiveEvent.RESET, tooOld.type());
+        assertEquals(6L, tooOld.sequence());
+        assertEquals(LiveEvent.RESET, otherRun.type());
+    }
+
+    @Test
+    void onSalesBatchCreated_ShouldSendRevenueAsPriceTimesQuantity() {
+        // Arrange
+        RecordingSubscriber live = new RecordingSubscriber(Long.MAX_VALUE);
+        broadcaster.subscribe(null).subscribe(live);
+        List<Sale> sales = List.of(
+                sale(new BigDecimal("3"), new BigDecimal("150.00"), new BigDecimal("200.00")),
+                sale(BigDecimal.ONE, new BigDecimal("80.00"), new BigDecimal("30.00")));
+
+        // Act
+        broadcaster.onSalesBatchCreated(SalesBatchCreatedEvent.of(sales));
+
+        // Assert
+        assertEquals("sales-batch", live.events.get(0).type());
+        assertEquals("{\"count\":2,\"revenue\":530.00,\"profit\":230.00}", live.events.get(0).data());
+    }
+
+    private static Sale sale(BigDecimal quantitySold, BigDecimal salePrice, BigDecimal profit) {
+        Sale sale = new Sale();
+        sale.setQuantitySold(quantitySold);
+        sale.setSalePrice(salePrice);
+        sale.setProfit(profit);
+        return sale;
+    }
+
+    private static class RecordingSubscriber extends BaseSubscriber<LiveEvent> {
+
+        private final long initialRequest;
+        private final List<LiveEvent> events = new ArrayList<>();
+        private boolean completed;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialRequest > 0) {
+                request(initialRequest);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(LiveEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
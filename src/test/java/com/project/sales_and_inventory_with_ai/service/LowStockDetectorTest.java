@@ -0,0 +1,165 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.dto.MaterialDTO;
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockDetectorTest {
+
+    private static final Long FLOUR = 1L;
+    private static final Long EGGS = 2L;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LowStockDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new LowStockDetector(materialRepository, eventPublisher, meterRegistry, new BigDecimal("10"));
+        when(materialRepository.findAllAsDTO()).thenReturn(List.of(
+                material(FLOUR, "Flour", "12", null),
+                material(EGGS, "Eggs", "40", "50")));
+        detector.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldUseEachReorderPointOrTheDefault() {
+        // Act
+        List<MaterialStockDTO> lowStock = detector.getLowStock();
+
+        // Assert
+        assertEquals(1, lowStock.size());
+        assertEquals("Eggs", lowStock.get(0).getName());
+        assertEquals(new BigDecimal("50"), lowStock.get(0).getReorderPoint());
+        assertEquals(1.0, meterRegistry.get("inventory.low_stock.materials").gauge().value());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void stockDeducted_ShouldPublishOnlyWhenCrossingTheReorderPoint() {
+        // Act
+        List<MaterialStockDTO> remaining = detector.stockDeducted(Map.of(FLOUR, new BigDecimal("3")));
+        detector.stockDeducted(Map.of(FLOUR, new BigDecimal("1")));
+
+        // Assert - the levels come from the committed stock, not from reading the rows back
+        assertEquals(new BigDecimal("9"), remaining.get(0).getQuantity());
+        verify(materialRepository, never()).findStock(any());
+        verify(eventPublisher, times(1)).publishEvent(new LowStockEvent(FLOUR, "Flour", "kg",
+                new BigDecimal("9"), new BigDecimal("10"), LowStockEvent.Type.LOW));
+        assertEquals(List.of(FLOUR, EGGS), detector.getLowStock().stream().map(MaterialStockDTO::getId).toList());
+        assertEquals(new BigDecimal("8"), detector.getLowStock().get(0).getQuantity());
+    }
+
+    @Test
+    void materialUpdated_WhenRestockedOrReorderPointLowered_ShouldPublishRestocked() {
+        // Arrange
+        Material eggs = new Material(EGGS, "Eggs", "kg", new BigDecimal("8.00"), new BigDecimal("40"), LocalDate.now(),
+                new BigDecimal("30"));
+
+        // Act
+        detector.materialUpdated(stock(EGGS, "Eggs", "40", "50"), eggs);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new LowStockEvent(EGGS, "Eggs", "kg",
+                new BigDecimal("40"), new BigDecimal("30"), LowStockEvent.Type.RESTOCKED));
+        assertTrue(detector.getLowStock().isEmpty());
+    }
+
+    @Test
+    void stockDeducted_OfUnknownMaterial_ShouldReadItOnce() {
+        // Arrange
+        Long milk = 3L;
+        when(materialRepository.findStock(List.of(milk))).thenReturn(List.of(stock(milk, "Milk", "15", null)));
+
+        // Act
+        detector.stockDeducted(Map.of(milk, new BigDecimal("4")));
+        detector.stockDeducted(Map.of(milk, new BigDecimal("6")));
+
+        // Assert
+        verify(materialRepository, times(1)).findStock(any());
+        verify(eventPublisher, times(1)).publishEvent(new LowStockEvent(milk, "Milk", "kg",
+                new BigDecimal("9"), new BigDecimal("10"), LowStockEvent.Type.LOW));
+    }
+
+    @Test
+    void stockDeducted_WhenTransactionRollsBack_ShouldKeepTheCommittedStock() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            detector.stockDeducted(Map.of(FLOUR, new BigDecimal("5")));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act
+        List<MaterialStockDTO> remaining = detector.stockDeducted(Map.of(FLOUR, new BigDecimal("1")));
+
+        // Assert
+        assertEquals(new BigDecimal("11"), remaining.get(0).getQuantity());
+        assertFalse(TransactionSynchronizationManager.hasResource(detector));
+    }
+
+    @Test
+    void changes_WhenCommittedOutOfOrder_ShouldKeepTheNewest() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> commits;
+        try {
+            detector.stockDeducted(Map.of(FLOUR, new BigDecimal("7")));
+            detector.materialDeleted(FLOUR);
+            commits = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act - after the committed stock (first synchronization) the two changes, newest first
+        commits.get(0).beforeCommit(false);
+        commits.get(2).afterCommit();
+        commits.get(1).afterCommit();
+        commits.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(List.of(EGGS), detector.getLowStock().stream().map(MaterialStockDTO::getId).toList());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(materialRepository, never()).findStock(any());
+    }
+
+    private static MaterialDTO material(Long id, String name, String quantity, String reorderPoint) {
+        return new MaterialDTO(id, name, "kg", new BigDecimal("50.00"), new BigDecimal(quantity), LocalDate.now(),
+                reorderPoint == null ? null : new BigDecimal(reorderPoint));
+    }
+
+    private static MaterialStockDTO stock(Long id, String name, String quantity, String reorderPoint) {
+        return new MaterialStockDTO(id, name, "kg", new BigDecimal(quantity),
+                reorderPoint == null ? null : new BigDecimal(reorderPoint));
+    }
+}
@@ -1,18 +1,27 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
 import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.entity.StockMovement;
 import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
+import com.project.sales_and_inventory_with_ai.repository.StockMovementRepository;
+import com.project.sales_and_inventory_with_ai.search.NameSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +34,27 @@ class MaterialServiceImplTest {
     @Mock
     private MaterialRepository materialRepository;
 
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private RecipeCache recipeCache;
+
+    @Mock
+    private FoodItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    @Mock
+    private NameSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private MaterialServiceImpl materialService;
 
@@ -38,7 +68,8 @@ class MaterialServiceImplTest {
             "kg",
             new BigDecimal("50.00"),
             new BigDecimal("100"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
     }
 
@@ -97,6 +128,24 @@ class MaterialServiceImplTest {
         assertNotNull(result);
         assertEquals("Flour", result.getName());
         verify(materialRepository, times(1)).save(testMaterial);
+        verify(stockMovementRepository, times(1)).save(argThat(movement ->
+            movement.getMovementType() == StockMovement.MovementType.PURCHASE
+                && movement.getQuantityChange().compareTo(testMaterial.getQuantity()) == 0));
+        verify(lowStockDetector, times(1)).materialCreated(testMaterial);
+        verify(searchIndex, times(1)).materialSaved(1L, "Flour");
+    }
+
+    @Test
+    void createMaterial_WithNegativeReorderPoint_ShouldThrowException() {
+        // Arrange
+        testMaterial.setReorderPoint(new BigDecimal("-1"));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            materialService.createMaterial(testMaterial);
+        });
+        assertTrue(exception.getMessage().contains("Reorder point cannot be negative"));
+        verify(materialRepository, never()).save(any(Material.class));
     }
 
     @Test
@@ -132,8 +181,11 @@ class MaterialServiceImplTest {
             "kg",
             new BigDecimal("55.00"),
             new BigDecimal("150"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
+        MaterialStockDTO before = new MaterialStockDTO(1L, "Flour", "kg", new BigDecimal("100"), null);
+        when(materialRepository.findStockForUpdate(1L)).thenReturn(before);
         when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.save(any(Material.class))).thenReturn(updatedMaterial);
 
@@ -145,6 +197,27 @@ class MaterialServiceImplTest {
         assertEquals("Updated Flour", result.getName());
         assertEquals(new BigDecimal("55.00"), result.getPricePerUnit());
         verify(materialRepository, times(1)).save(any(Material.class));
+        verify(recipeCache, times(1)).invalidateMaterial(1L);
+        verify(availabilityIndex, times(1)).refreshMaterials(List.of(1L));
+        verify(stockMovementRepository, times(1)).save(argThat(movement ->
+            movement.getMovementType() == StockMovement.MovementType.ADJUSTMENT
+                && movement.getQuantityChange().compareTo(new BigDecimal("50")) == 0));
+        verify(lowStockDetector, times(1)).materialUpdated(before, updatedMaterial);
+        verify(searchIndex, times(1)).materialSaved(1L, "Updated Flour");
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(1L, new BigDecimal("50"), new BigDecimal("150")));
+    }
+
+    @Test
+    void updateMaterial_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        when(materialRepository.findStockForUpdate(999L)).thenReturn(null);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            materialService.updateMaterial(999L, testMaterial);
+        });
+        assertTrue(exception.getMessage().contains("Material not found"));
+        verify(lowStockDetector, never()).materialUpdated(any(), any());
     }
 
     @Test
@@ -158,6 +231,8 @@ class MaterialServiceImplTest {
 
         // Assert
         verify(materialRepository, times(1)).deleteById(1L);
+        verify(lowStockDetector, times(1)).materialDeleted(1L);
+        verify(searchIndex, times(1)).materialDeleted(1L);
     }
 
     @Test
@@ -175,19 +250,24 @@ class MaterialServiceImplTest {
     @Test
     void deductStock_WithSufficientQuantity_ShouldDeductSuccessfully() {
         // Arrange
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
-        when(materialRepository.save(any(Material.class))).thenReturn(testMaterial);
+        when(materialRepository.deductQuantities(Map.of(1L, new BigDecimal("50")))).thenReturn(List.of());
 
         // Act
         materialService.deductStock(1L, new BigDecimal("50"));
 
         // Assert
-        verify(materialRepository, times(1)).save(any(Material.class));
+        verify(materialRepository, never()).save(any(Material.class));
+        verify(stockMovementRepository, times(1)).saveAll(argThat(movements -> {
+            StockMovement movement = movements.iterator().next();
+            return movement.getMovementType() == StockMovement.MovementType.SALE
+                && movement.getQuantityChange().compareTo(new BigDecimal("-50")) == 0;
+        }));
     }
 
     @Test
     void deductStock_WithInsufficientQuantity_ShouldThrowException() {
         // Arrange
+        when(materialRepository.deductQuantities(Map.of(1L, new BigDecimal("150")))).thenReturn(List.of(1L));
         when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
 
         // Act & Assert
@@ -195,6 +275,46 @@ class MaterialServiceImplTest {
             materialService.deductStock(1L, new BigDecimal("150"));
         });
         assertTrue(exception.getMessage().contains("Insufficient stock"));
+        verify(stockMovementRepository, never()).saveAll(any());
+        assertEquals(1, meterRegistry.get("inventory.stock.deduct").tag("outcome", "insufficient").timer().count());
+    }
+
+    @Test
+    void deductStockBatch_WithSufficientQuantity_ShouldDeductInOneBatch() {
+        // Arrange
+        Map<Long, BigDecimal> quantities = Map.of(1L, new BigDecimal("10"), 2L, new BigDecimal("5"));
+        when(materialRepository.deductQuantities(quantities)).thenReturn(List.of());
+        when(lowStockDetector.stockDeducted(quantities)).thenReturn(List.of(
+            new MaterialStockDTO(1L, "Flour", "kg", new BigDecimal("90"), null),
+            new MaterialStockDTO(2L, "Sugar", "kg", new BigDecimal("45"), null)));
+
+        // Act
+        materialService.deductStockBatch(quantities);
+
+        // Assert
+        verify(materialRepository, times(1)).deductQuantities(quantities);
+        verify(materialRepository, never()).findById(any(Long.class));
+        verify(materialRepository, never()).save(any(Material.class));
+        verify(availabilityIndex, times(1)).refreshMaterials(quantities.keySet());
+        verify(lowStockDetector, times(1)).stockDeducted(quantities);
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(1L, new BigDecimal("-10"), new BigDecimal("90")));
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(2L, new BigDecimal("-5"), new BigDecimal("45")));
+    }
+
+    @Test
+    void deductStockBatch_WithInsufficientQuantity_ShouldThrowException() {
+        // Arrange
+        Map<Long, BigDecimal> quantities = Map.of(1L, new BigDecimal("150"));
+        when(materialRepository.deductQuantities(quantities)).thenReturn(List.of(1L));
+        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            materialService.deductStockBatch(quantities);
+        });
+        assertTrue(exception.getMessage().contains("Insufficient stock for material: Flour"));
+        verify(availabilityIndex, never()).refreshMaterials(any());
+        verify(lowStockDetector, never()).stockDeducted(any());
     }
 
     @Test
@@ -206,7 +326,8 @@ class MaterialServiceImplTest {
             "kg",
             new BigDecimal("60.00"),
             new BigDecimal("5"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
         List<Material> lowStockMaterials = Arrays.asList(lowStockMaterial);
         when(materialRepository.findByQuantityLessThan(new BigDecimal("10")))
@@ -0,0 +1,134 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.FoodItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeCacheTest {
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RecipeCache recipeCache;
+
+    @BeforeEach
+    void setUp() {
+        recipeCache = new RecipeCache(foodItemRepository, meterRegistry, 2);
+    }
+
+    private FoodItem foodItem(Long id, Long materialId) {
+        Material material = new Material(
+            materialId,
+            "Flour",
+            "kg",
+            new BigDecimal("50.00"),
+            new BigDecimal("100"),
+            LocalDate.now(),
+            null
+        );
+
+        FoodItem foodItem = new FoodItem();
+        foodItem.setId(id);
+        foodItem.setName("Item " + id);
+        foodItem.setPricePerServing(new BigDecimal("150.00"));
+        foodItem.setIngredients(new ArrayList<>());
+        foodItem.getIngredients().add(new Ingredient(id, foodItem, material, new BigDecimal("0.5")));
+        when(foodItemRepository.findByIdWithIngredients(id)).thenReturn(Optional.of(foodItem));
+        return foodItem;
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        // Arrange
+        foodItem(1L, 10L);
+
+        // Act
+        RecipeSnapshot first = recipeCache.get(1L);
+        RecipeSnapshot second = recipeCache.get(1L);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, first.getLines().size());
+        assertEquals(new BigDecimal("50.00"), first.getLines().get(0).getPricePerUnit());
+        verify(foodItemRepository, times(1)).findByIdWithIngredients(1L);
+        Map<String, Object> stats = recipeCache.getStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    void get_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        foodItem(1L, 10L);
+        foodItem(2L, 10L);
+        foodItem(3L, 10L);
+
+        // Act
+        recipeCache.get(1L);
+        recipeCache.get(2L);
+        recipeCache.get(1L);
+        recipeCache.get(3L);
+        recipeCache.get(1L);
+        recipeCache.get(2L);
+
+        // Assert
+        verify(foodItemRepository, times(1)).findByIdWithIngredients(1L);
+        verify(foodItemRepository, times(2)).findByIdWithIngredients(2L);
+        assertEquals(2, recipeCache.getStats().get("size"));
+        assertEquals(2L, recipeCache.getStats().get("evictions"));
+        assertEquals(2.0, meterRegistry.get("recipe.cache.size").gauge().value());
+        assertEquals(2.0, meterRegistry.get("recipe.cache.evictions").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("recipe.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(4.0, meterRegistry.get("recipe.cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void invalidateMaterial_ShouldDropRecipesUsingTheMaterial() {
+        // Arrange
+        foodItem(1L, 10L);
+        foodItem(2L, 20L);
+        recipeCache.get(1L);
+        recipeCache.get(2L);
+
+        // Act
+        recipeCache.invalidateMaterial(10L);
+        recipeCache.get(1L);
+        recipeCache.get(2L);
+
+        // Assert
+        verify(foodItemRepository, times(2)).findByIdWithIngredients(1L);
+        verify(foodItemRepository, times(1)).findByIdWithIngredients(2L);
+    }
+
+    @Test
+    void get_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        when(foodItemRepository.findByIdWithIngredients(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            recipeCache.get(99L);
+        });
+        assertTrue(exception.getMessage().contains("Food item not found"));
+    }
+}
@@ -1,11 +1,13 @@
 package com.project.sales_and_inventory_with_ai.service;
 
 import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
 import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,23 +29,33 @@ class ReportServiceImplTest {
     @Mock
     private SaleRepository saleRepository;
 
+    @Mock
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
     @Mock
     private MaterialService materialService;
 
-    @InjectMocks
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private ReportServiceImpl reportService;
 
     private List<Material> testMaterials;
 
     @BeforeEach
     void setUp() {
+        reportService = new ReportServiceImpl(saleRepository, dailySalesRollupRepository, materialService,
+                lowStockDetector, meterRegistry, 100);
         Material material1 = new Material(
             1L,
             "Flour",
             "kg",
             new BigDecimal("50.00"),
             new BigDecimal("100"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
         Material material2 = new Material(
             2L,
@@ -51,7 +63,8 @@ class ReportServiceImplTest {
             "kg",
             new BigDecimal("60.00"),
             new BigDecimal("5"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
         testMaterials = Arrays.asList(material1, material2);
     }
@@ -73,18 +86,48 @@ class ReportServiceImplTest {
     }
 
     @Test
-    void getTotalProfit_ForWeek_ShouldReturnProfit() {
+    void getTotalProfit_ForWeek_ShouldCombineRollupWithPartialDays() {
         // Arrange
-        BigDecimal expectedProfit = new BigDecimal("5000.00");
+        when(saleRepository.calculateTotalProfitExclusive(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(new BigDecimal("500.00"));
+        when(dailySalesRollupRepository.calculateTotalProfit(any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(new BigDecimal("4000.00"));
         when(saleRepository.calculateTotalProfit(any(LocalDateTime.class), any(LocalDateTime.class)))
-            .thenReturn(expectedProfit);
+            .thenReturn(new BigDecimal("500.00"));
 
         // Act
         BigDecimal result = reportService.getTotalProfit("week");
 
         // Assert
         assertNotNull(result);
-        assertEquals(expectedProfit, result);
+        assertEquals(new BigDecimal("5000.00"), result);
+        verify(dailySalesRollupRepository, times(1)).calculateTotalProfit(
+            LocalDate.now().minusDays(6), LocalDate.now().minusDays(1));
+    }
+
+    @Test
+    void getTopSellingItems_ForMonth_ShouldMergeRollupAndRawRows() {
+        // Arrange
+        List<Object[]> edgeRows = new ArrayList<>();
+        edgeRows.add(new Object[]{2L, "Vanilla Cupcake", new BigDecimal("5")});
+        List<Object[]> rollupRows = new ArrayList<>();
+        rollupRows.add(new Object[]{1L, "Chocolate Cake", new BigDecimal("20")});
+        rollupRows.add(new Object[]{2L, "Vanilla Cupcake", new BigDecimal("18")});
+        when(saleRepository.findTopSellingItemsExclusive(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(edgeRows);
+        when(dailySalesRollupRepository.findTopSellingItems(any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(rollupRows);
+        when(saleRepository.findTopSellingItems(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(new ArrayList<>());
+
+        // Act
+        List<Map<String, Object>> result = reportService.getTopSellingItems("month", 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).get("foodItemId"));
+        assertEquals(new BigDecimal("23"), result.get(0).get("totalQuantitySold"));
+        assertEquals(1L, result.get(1).get("foodItemId"));
     }
 
     @Test
@@ -99,10 +142,7 @@ class ReportServiceImplTest {
     @Test
     void getMaterialsStockReport_ShouldReturnStockReport() {
         // Arrange
-        List<Material> lowStockMaterials = Arrays.asList(testMaterials.get(1));
         when(materialService.getAllMaterials()).thenReturn(testMaterials);
-        when(materialService.getLowStockMaterials(new BigDecimal("10")))
-            .thenReturn(lowStockMaterials);
 
         // Act
         Map<String, Object> result = reportService.getMaterialsStockReport(new BigDecimal("10"));
@@ -113,25 +153,26 @@ class ReportServiceImplTest {
         assertEquals(1, result.get("lowStockCount"));
         assertEquals(new BigDecimal("10"), result.get("lowStockThreshold"));
         assertNotNull(result.get("materials"));
-        assertNotNull(result.get("lowStockMaterials"));
+        assertEquals(List.of(testMaterials.get(1)), result.get("lowStockMaterials"));
         verify(materialService, times(1)).getAllMaterials();
-        verify(materialService, times(1)).getLowStockMaterials(new BigDecimal("10"));
+        verify(materialService, never()).getLowStockMaterials(any());
     }
 
     @Test
-    void getMaterialsStockReport_WithNullThreshold_ShouldUseDefault() {
+    void getMaterialsStockReport_WithNullThreshold_ShouldUseEachReorderPoint() {
         // Arrange
         when(materialService.getAllMaterials()).thenReturn(testMaterials);
-        when(materialService.getLowStockMaterials(BigDecimal.TEN))
-            .thenReturn(new ArrayList<>());
+        when(lowStockDetector.isLow(new BigDecimal("100"), null)).thenReturn(false);
+        when(lowStockDetector.isLow(testMaterials.get(1).getQuantity(), null)).thenReturn(true);
 
         // Act
         Map<String, Object> result = reportService.getMaterialsStockReport(null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(BigDecimal.TEN, result.get("lowStockThreshold"));
-        verify(materialService, times(1)).getLowStockMaterials(BigDecimal.TEN);
+        assertNull(result.get("lowStockThreshold"));
+        assertEquals(1, result.get("lowStockCount"));
+        verify(materialService, never()).getLowStockMaterials(any());
     }
 
     @Test
@@ -178,5 +219,81 @@ class ReportServiceImplTest {
         assertEquals(new BigDecimal("4000.00"), result.get("totalCost"));
         assertNotNull(result.get("startDate"));
         assertNotNull(result.get("endDate"));
+        assertEquals(1, meterRegistry.get("reports.query").tag("query", "salesSummary").timer().count());
+    }
+
+    @Test
+    void getSalesTimeSeries_ByHour_ShouldZeroFillEmptyBuckets() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 1, 14, 0);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{2026, 10, 1, 11, new BigDecimal("2"), new BigDecimal("300.00"), new BigDecimal("120.00")});
+        rows.add(new Object[]{2026, 10, 1, 13, new BigDecimal("1"), new BigDecimal("150.00"), new BigDecimal("60.00")});
+        when(saleRepository.findHourlyTotals(from, to, 5L)).thenReturn(rows);
+
+        // Act
+        Map<String, Object> result = reportService.getSalesTimeSeries(from, to, "hour", List.of("revenue", "qty"), 5L);
+
+        // Assert
+        List<Map<String, Object>> points = points(result);
+        assertEquals(4, points.size());
+        assertEquals(LocalDateTime.of(2026, 10, 1, 10, 0), points.get(0).get("start"));
+        assertEquals(List.of("start", "revenue", "qty"), new ArrayList<>(points.get(0).keySet()));
+        assertEquals(BigDecimal.ZERO, points.get(0).get("revenue"));
+        assertEquals(new BigDecimal("300.00"), points.get(1).get("revenue"));
+        assertEquals(BigDecimal.ZERO, points.get(2).get("qty"));
+        assertEquals(new BigDecimal("1"), points.get(3).get("qty"));
+        verifyNoInteractions(dailySalesRollupRepository);
+    }
+
+    @Test
+    void getSalesTimeSeries_ByWeek_ShouldCombineRollupWithPartialDays() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2026, 10, 5, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 14, 6, 0);
+        List<Object[]> firstDay = new ArrayList<>();
+        firstDay.add(new Object[]{2026, 10, 5, 15, new BigDecimal("1"), new BigDecimal("100.00"), new BigDecimal("40.00")});
+        List<Object[]> lastDay = new ArrayList<>();
+        lastDay.add(new Object[]{2026, 10, 14, 5, new BigDecimal("3"), new BigDecimal("300.00"), new BigDecimal("90.00")});
+        List<Object[]> rollupRows = new ArrayList<>();
+        rollupRows.add(new Object[]{LocalDate.of(2026, 10, 7), new BigDecimal("2"), new BigDecimal("200.00"), new BigDecimal("80.00")});
+        rollupRows.add(new Object[]{LocalDate.of(2026, 10, 12), new BigDecimal("4"), new BigDecimal("400.00"), new BigDecimal("160.00")});
+        when(saleRepository.findHourlyTotals(from, LocalDateTime.of(2026, 10, 6, 0, 0), null)).thenReturn(firstDay);
+        when(saleRepository.findHourlyTotals(LocalDateTime.of(2026, 10, 14, 0, 0), to, null)).thenReturn(lastDay);
+        when(dailySalesRollupRepository.findDailyTotals(LocalDate.of(2026, 10, 6), LocalDate.of(2026, 10, 13), null))
+            .thenReturn(rollupRows);
+
+        // Act
+        Map<String, Object> result = reportService.getSalesTimeSeries(from, to, "week", null, null);
+
+        // Assert
+        List<Map<String, Object>> points = points(result);
+        assertEquals(2, points.size());
+        assertEquals(LocalDateTime.of(2026, 10, 12, 0, 0), points.get(1).get("start"));
+        assertEquals(new BigDecimal("300.00"), points.get(0).get("revenue"));
+        assertEquals(new BigDecimal("120.00"), points.get(0).get("profit"));
+        assertEquals(new BigDecimal("7"), points.get(1).get("qty"));
+        assertEquals(new BigDecimal("700.00"), points.get(1).get("revenue"));
+    }
+
+    @Test
+    void getSalesTimeSeries_WithTooManyBuckets_ShouldThrowException() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                reportService.getSalesTimeSeries(from, from.plusHours(101), "hour", null, null));
+        assertTrue(exception.getMessage().contains("Too many buckets"));
+        assertTrue(assertThrows(RuntimeException.class, () ->
+                reportService.getSalesTimeSeries(from, from.plusDays(1), "month", null, null))
+                .getMessage().contains("Invalid bucket"));
+        verifyNoInteractions(saleRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> points(Map<String, Object> timeSeries) {
+        return (List<Map<String, Object>>) timeSeries.get("points");
     }
 }
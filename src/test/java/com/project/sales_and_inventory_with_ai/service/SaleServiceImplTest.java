@@ -1,16 +1,25 @@
 package com.project.sales_and_inventory_with_ai.service;
 
+import com.project.sales_and_inventory_with_ai.dto.MaterialStockDTO;
+import com.project.sales_and_inventory_with_ai.dto.SaleDTO;
 import com.project.sales_and_inventory_with_ai.entity.FoodItem;
 import com.project.sales_and_inventory_with_ai.entity.Ingredient;
 import com.project.sales_and_inventory_with_ai.entity.Material;
 import com.project.sales_and_inventory_with_ai.entity.Sale;
+import com.project.sales_and_inventory_with_ai.repository.DailySalesRollupRepository;
+import com.project.sales_and_inventory_with_ai.repository.MaterialRepository;
 import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,9 +27,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +42,27 @@ class SaleServiceImplTest {
     @Mock
     private SaleRepository saleRepository;
 
+    @Mock
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
     @Mock
     private FoodItemService foodItemService;
 
     @Mock
     private MaterialService materialService;
 
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private RecipeCache recipeCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private SaleServiceImpl saleService;
 
@@ -51,7 +79,8 @@ class SaleServiceImplTest {
             "kg",
             new BigDecimal("50.00"),
             new BigDecimal("100"),
-            LocalDate.now()
+            LocalDate.now(),
+            null
         );
 
         testFoodItem = new FoodItem();
@@ -93,9 +122,9 @@ class SaleServiceImplTest {
     @Test
     void createSale_WithValidData_ShouldCalculateProfitAndDeductStock() {
         // Arrange
-        when(foodItemService.getFoodItemById(1L)).thenReturn(testFoodItem);
+        when(recipeCache.get(1L)).thenReturn(RecipeSnapshot.of(testFoodItem));
         when(saleRepository.save(any(Sale.class))).thenReturn(testSale);
-        doNothing().when(materialService).deductStock(any(Long.class), any(BigDecimal.class));
+        doNothing().when(materialService).deductStockBatch(anyMap());
 
         // Act
         Sale result = saleService.createSale(testSale);
@@ -104,8 +133,30 @@ class SaleServiceImplTest {
         assertNotNull(result);
         assertNotNull(result.getProfit());
         assertNotNull(result.getCostOfIngredients());
-        verify(materialService, times(1)).deductStock(eq(1L), any(BigDecimal.class));
+        verify(materialService, times(1)).deductStockBatch(Map.of(1L, new BigDecimal("1.0")));
+        verify(materialService, never()).deductStock(any(Long.class), any(BigDecimal.class));
+        verify(dailySalesRollupRepository, times(1)).addSales(List.of(testSale));
         verify(saleRepository, times(1)).save(any(Sale.class));
+        verify(eventPublisher, times(1)).publishEvent(SaleCreatedEvent.of(testSale));
+    }
+
+    @Test
+    void createSale_ShouldTimeEachPhaseAndCountDeductedStock() {
+        // Arrange
+        when(recipeCache.get(1L)).thenReturn(RecipeSnapshot.of(testFoodItem));
+        when(saleRepository.save(any(Sale.class))).thenReturn(testSale);
+
+        // Act
+        saleService.createSale(testSale);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("sales.create").tag("outcome", "success").timer().count());
+        for (String phase : List.of("recipe", "deduct", "save", "rollup")) {
+            assertEquals(1, meterRegistry.get("sales.create.phase").tag("phase", phase).timer().count(), phase);
+        }
+        assertEquals(1.0, meterRegistry.get("sales.ingredient.deducted").counter().count());
+        assertTrue(meterRegistry.get("sales.ingredient.deducted").counter().getId().getTags().isEmpty());
+        assertEquals(1.0, meterRegistry.get("sales.create.ingredients").summary().totalAmount());
     }
 
     @Test
@@ -153,9 +204,9 @@ class SaleServiceImplTest {
     void createSale_ShouldSetSaleDateIfNotProvided() {
         // Arrange
         testSale.setSaleDate(null);
-        when(foodItemService.getFoodItemById(1L)).thenReturn(testFoodItem);
+        when(recipeCache.get(1L)).thenReturn(RecipeSnapshot.of(testFoodItem));
         when(saleRepository.save(any(Sale.class))).thenReturn(testSale);
-        doNothing().when(materialService).deductStock(any(Long.class), any(BigDecimal.class));
+        doNothing().when(materialService).deductStockBatch(anyMap());
 
         // Act
         Sale result = saleService.createSale(testSale);
@@ -164,4 +215,105 @@ class SaleServiceImplTest {
         assertNotNull(result);
         verify(saleRepository, times(1)).save(any(Sale.class));
     }
+
+    @Test
+    void createSale_WithInsufficientStock_ShouldRejectWholeSale() {
+        // Arrange
+        when(recipeCache.get(1L)).thenReturn(RecipeSnapshot.of(testFoodItem));
+        doThrow(new RuntimeException("Insufficient stock for material: Flour"))
+            .when(materialService).deductStockBatch(anyMap());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            saleService.createSale(testSale);
+        });
+        assertTrue(exception.getMessage().contains("Insufficient stock"));
+        verify(saleRepository, never()).save(any(Sale.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createSales_ShouldSaveValidSalesAndReportFailedOnes() {
+        // Arrange
+        Sale secondSale = new Sale();
+        secondSale.setFoodItem(testFoodItem);
+        secondSale.setQuantitySold(new BigDecimal("500"));
+        secondSale.setSalePrice(new BigDecimal("150.00"));
+
+        Sale invalidSale = new Sale();
+        invalidSale.setFoodItem(testFoodItem);
+        invalidSale.setQuantitySold(BigDecimal.ZERO);
+        invalidSale.setSalePrice(new BigDecimal("150.00"));
+
+        when(foodItemService.getFoodItemsByIds(Set.of(1L))).thenReturn(List.of(testFoodItem));
+        when(materialRepository.findStock(Set.of(1L)))
+            .thenReturn(List.of(new MaterialStockDTO(1L, "Flour", "kg", new BigDecimal("100"), null)));
+        when(saleRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SaleBatchResult result = saleService.createSales(Arrays.asList(testSale, secondSale, invalidSale));
+
+        // Assert
+        assertEquals(1, result.getCreatedSales().size());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(1).contains("Insufficient stock"));
+        assertTrue(result.getErrors().get(2).contains("Quantity sold must be greater than zero"));
+        verify(materialService, times(1)).deductStockBatch(Map.of(1L, new BigDecimal("1.0")));
+        verify(recipeCache, never()).get(any(Long.class));
+        verify(eventPublisher, times(1)).publishEvent(SalesBatchCreatedEvent.of(result.getCreatedSales()));
+    }
+
+    @Test
+    void createSales_ShouldCheckStockAgainstCurrentQuantityNotTheLoadedMaterial() {
+        // Arrange
+        when(foodItemService.getFoodItemsByIds(Set.of(1L))).thenReturn(List.of(testFoodItem));
+        when(materialRepository.findStock(Set.of(1L)))
+            .thenReturn(List.of(new MaterialStockDTO(1L, "Flour", "kg", new BigDecimal("0.5"), null)));
+        when(saleRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SaleBatchResult result = saleService.createSales(List.of(testSale));
+
+        // Assert
+        assertTrue(result.getCreatedSales().isEmpty());
+        assertTrue(result.getErrors().get(0).contains("Available: 0.5"));
+        verify(materialService, times(1)).deductStockBatch(Map.of());
+    }
+
+    @Test
+    void getSalesPage_WithoutCursor_ShouldReturnFirstPage() {
+        // Arrange
+        when(saleRepository.findFirstPage(null, null, Limit.of(11))).thenReturn(List.of(new SaleDTO()));
+
+        // Act
+        List<SaleDTO> result = saleService.getSalesPage(null, null, null, 11);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(saleRepository, never()).findPageAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getSalesPage_WithCursor_ShouldContinueAfterCursor() {
+        // Arrange
+        LocalDateTime saleDate = LocalDateTime.of(2026, 1, 15, 10, 30);
+        SaleCursor cursor = SaleCursor.decode(new SaleCursor(saleDate, 42L).encode());
+        when(saleRepository.findPageAfter(null, null, saleDate, 42L, Limit.of(11))).thenReturn(List.of(new SaleDTO()));
+
+        // Act
+        List<SaleDTO> result = saleService.getSalesPage(null, null, cursor, 11);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(saleRepository, never()).findFirstPage(any(), any(), any());
+    }
+
+    @Test
+    void saleCursor_WithGarbage_ShouldThrowException() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            SaleCursor.decode("not-a-cursor");
+        });
+        assertTrue(exception.getMessage().contains("Invalid cursor"));
+    }
 }
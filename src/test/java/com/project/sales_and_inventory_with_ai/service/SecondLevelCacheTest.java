@@ -0,0 +1,140 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.config.HibernateCacheConfig;
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private MaterialService materialService;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getRecipes_WhenCached_ShouldNotQueryTheDatabase() {
+        // Arrange
+        Material material = materialService.createMaterial(newMaterial("Cache Flour", "50.00", "100"));
+        FoodItem foodItem = foodItemService.createFoodItem(newFoodItem("Cache Bread", material));
+        foodItemService.getAllFoodItems();
+        foodItemService.getFoodItemById(foodItem.getId());
+        materialService.getMaterialById(material.getId());
+
+        // Act
+        statistics.clear();
+        List<FoodItem> foodItems = foodItemService.getAllFoodItems();
+        FoodItem cached = foodItemService.getFoodItemById(foodItem.getId());
+        Material cachedMaterial = materialService.getMaterialById(material.getId());
+
+        // Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(foodItems.stream().anyMatch(item -> item.getId().equals(foodItem.getId())));
+        assertEquals("Cache Flour", cached.getIngredients().get(0).getMaterial().getName());
+        assertEquals("Cache Flour", cachedMaterial.getName());
+        assertTrue(meterRegistry.get("hibernate.cache.hit.ratio").tag("region", HibernateCacheConfig.MATERIALS).gauge().value() > 0);
+    }
+
+    @Test
+    void updateMaterial_ShouldReplaceCachedCopy() {
+        // Arrange
+        Material material = materialService.createMaterial(newMaterial("Cache Sugar", "40.00", "100"));
+        FoodItem foodItem = foodItemService.createFoodItem(newFoodItem("Cache Candy", material));
+        foodItemService.getFoodItemById(foodItem.getId());
+
+        // Act
+        materialService.updateMaterial(material.getId(), newMaterial("Cache Brown Sugar", "45.00", "100"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("45.00").compareTo(materialService.getMaterialById(material.getId()).getPricePerUnit()));
+        assertEquals("Cache Brown Sugar", foodItemService.getFoodItemById(foodItem.getId())
+                .getIngredients().get(0).getMaterial().getName());
+    }
+
+    @Test
+    void deductStock_ShouldEvictMaterialUpdatedOutsideHibernate() {
+        // Arrange
+        Material material = materialService.createMaterial(newMaterial("Cache Salt", "10.00", "100"));
+        materialService.getMaterialById(material.getId());
+
+        // Act
+        materialService.deductStock(material.getId(), new BigDecimal("30"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("70").compareTo(materialService.getMaterialById(material.getId()).getQuantity()));
+    }
+
+    @Test
+    void updateFoodItem_ShouldInvalidateCachedIngredientsAndQueries() {
+        // Arrange
+        Material butter = materialService.createMaterial(newMaterial("Cache Butter", "80.00", "100"));
+        Material cream = materialService.createMaterial(newMaterial("Cache Cream", "90.00", "100"));
+        FoodItem foodItem = foodItemService.createFoodItem(newFoodItem("Cache Pastry", butter));
+        foodItemService.getAllFoodItems();
+        foodItemService.getFoodItemById(foodItem.getId());
+
+        // Act
+        foodItemService.updateFoodItem(foodItem.getId(), newFoodItem("Cache Pastry", cream));
+        Ingredient added = new Ingredient(null, null, butter, new BigDecimal("0.1"));
+        foodItemService.addIngredientToFoodItem(foodItem.getId(), added);
+
+        // Assert
+        FoodItem reloaded = foodItemService.getFoodItemById(foodItem.getId());
+        assertEquals(List.of("Cache Cream", "Cache Butter"),
+                reloaded.getIngredients().stream().map(ingredient -> ingredient.getMaterial().getName()).toList());
+        FoodItem listed = foodItemService.getAllFoodItems().stream()
+                .filter(item -> item.getId().equals(foodItem.getId())).findFirst().orElseThrow();
+        assertEquals(2, listed.getIngredients().size());
+
+        // Act
+        foodItemService.removeIngredientFromFoodItem(foodItem.getId(), reloaded.getIngredients().get(0).getId());
+
+        // Assert
+        assertEquals(List.of("Cache Butter"), foodItemService.getFoodItemById(foodItem.getId()).getIngredients().stream()
+                .map(ingredient -> ingredient.getMaterial().getName()).toList());
+    }
+
+    private Material newMaterial(String name, String price, String quantity) {
+        return new Material(null, name, "kg", new BigDecimal(price), new BigDecimal(quantity), LocalDate.now(), null);
+    }
+
+    private FoodItem newFoodItem(String name, Material material) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName(name);
+        foodItem.setPricePerServing(new BigDecimal("150.00"));
+        foodItem.setIngredients(new ArrayList<>(List.of(new Ingredient(null, foodItem, material, new BigDecimal("0.5")))));
+        return foodItem;
+    }
+}
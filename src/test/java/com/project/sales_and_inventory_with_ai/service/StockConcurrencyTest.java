@@ -0,0 +1,151 @@
+package com.project.sales_and_inventory_with_ai.service;
+
+import com.project.sales_and_inventory_with_ai.entity.FoodItem;
+import com.project.sales_and_inventory_with_ai.entity.Ingredient;
+import com.project.sales_and_inventory_with_ai.entity.Material;
+import com.project.sales_and_inventory_with_ai.entity.Sale;
+import com.project.sales_and_inventory_with_ai.entity.StockMovement;
+import com.project.sales_and_inventory_with_ai.repository.SaleRepository;
+import com.project.sales_and_inventory_with_ai.repository.StockMovementRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockConcurrencyTest {
+
+    private static final int SELLERS = 64;
+
+    @Autowired
+    private MaterialService materialService;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private FoodItemAvailabilityIndex availabilityIndex;
+
+    @Test
+    void deductStock_With64ConcurrentSellers_ShouldNotLoseUpdates() throws Exception {
+        // Arrange
+        Material material = materialService.createMaterial(newMaterial("Concurrency Rice", "10000"));
+        int deductionsPerSeller = 20;
+        AtomicInteger failures = new AtomicInteger();
+
+        // Act
+        runConcurrently(() -> {
+            for (int i = 0; i < deductionsPerSeller; i++) {
+                try {
+                    materialService.deductStock(material.getId(), new BigDecimal("1.5"));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+
+        // Assert
+        BigDecimal expectedUsed = new BigDecimal("1.5").multiply(BigDecimal.valueOf(SELLERS * deductionsPerSeller));
+        assertEquals(0, failures.get());
+        assertEquals(0, new BigDecimal("10000").subtract(expectedUsed)
+                .compareTo(materialService.getMaterialById(material.getId()).getQuantity()));
+        assertEquals(SELLERS * deductionsPerSeller, stockMovementRepository
+                .countByMaterialIdAndMovementType(material.getId(), StockMovement.MovementType.SALE));
+        assertEquals(0, materialService.getMaterialById(material.getId()).getQuantity()
+                .compareTo(stockMovementRepository.sumQuantityChange(material.getId())));
+    }
+
+    @Test
+    void createSale_With64ConcurrentSellers_ShouldNeverOversell() throws Exception {
+        // Arrange
+        Material patty = materialService.createMaterial(newMaterial("Concurrency Patty", "100"));
+        Material bun = materialService.createMaterial(newMaterial("Concurrency Bun", "500"));
+        FoodItem burger = foodItemService.createFoodItem(
+                new FoodItem(null, "Concurrency Burger", new BigDecimal("80.00"), new ArrayList<>()));
+        foodItemService.addIngredientToFoodItem(burger.getId(), new Ingredient(null, null, patty, BigDecimal.ONE));
+        foodItemService.addIngredientToFoodItem(burger.getId(), new Ingredient(null, null, bun, new BigDecimal("2")));
+        assertEquals(100L, servingsAvailable(burger.getId()));
+        int attemptsPerSeller = 4;
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Act
+        runConcurrently(() -> {
+            for (int i = 0; i < attemptsPerSeller; i++) {
+                Sale sale = new Sale(null, new FoodItem(burger.getId(), null, null, null),
+                        BigDecimal.ONE, new BigDecimal("80.00"), null, null, null);
+                try {
+                    saleService.createSale(sale);
+                    sold.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertTrue(e.getMessage().contains("Insufficient stock"), e.getMessage());
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        // Assert
+        assertEquals(100, sold.get());
+        assertEquals(SELLERS * attemptsPerSeller - 100, rejected.get());
+        assertEquals(0, materialService.getMaterialById(patty.getId()).getQuantity().signum());
+        assertEquals(0, new BigDecimal("300").compareTo(materialService.getMaterialById(bun.getId()).getQuantity()));
+        assertEquals(100, saleRepository.findByFoodItemId(burger.getId()).size());
+        assertEquals(0, stockMovementRepository.sumQuantityChange(patty.getId()).signum());
+        assertEquals(0L, servingsAvailable(burger.getId()));
+    }
+
+    private Long servingsAvailable(Long foodItemId) {
+        availabilityIndex.refreshPending();
+        return availabilityIndex.getAll().stream()
+                .filter(availability -> availability.getFoodItemId().equals(foodItemId))
+                .findFirst().orElseThrow().getServingsAvailable();
+    }
+
+    private void runConcurrently(Runnable seller) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SELLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SELLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    seller.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Material newMaterial(String name, String quantity) {
+        return new Material(null, name, "pieces", new BigDecimal("5.00"), new BigDecimal(quantity), LocalDate.now(), null);
+    }
+}
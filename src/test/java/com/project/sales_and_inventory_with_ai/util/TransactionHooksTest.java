@@ -0,0 +1,60 @@
+package com.project.sales_and_inventory_with_ai.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionHooksTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void afterCommit_OutsideTransaction_ShouldRunRightAway() {
+        // Act
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+
+        // Assert
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void afterCommit_InTransaction_ShouldOnlyRunOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        TransactionHooks.nowAndAfterCommit(runs::incrementAndGet);
+        assertEquals(1, runs.get());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void afterCommit_OnRollback_ShouldNotRun() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(0, runs.get());
+    }
+}